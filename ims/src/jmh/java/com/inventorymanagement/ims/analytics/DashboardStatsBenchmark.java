@@ -0,0 +1,63 @@
+package com.inventorymanagement.ims.analytics;
+
+import com.inventorymanagement.ims.benchmark.BenchmarkContext;
+import com.inventorymanagement.ims.benchmark.BenchmarkDatasets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// The cached dashboard read next to the full reconciliation it replaces on the request path
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DashboardStatsBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int productCount;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("dashboard" + productCount);
+        BenchmarkDatasets.insertProducts(context.getBean(JdbcTemplate.class), productCount, 100);
+        analyticsService = context.getBean(AnalyticsService.class);
+        dashboardStatsCache = context.getBean(DashboardStatsCache.class);
+        dashboardStatsCache.reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardStatsDto getDashboardStats() {
+        return analyticsService.getDashboardStats();
+    }
+
+    @Benchmark
+    public DashboardStatsDto reconcile() {
+        dashboardStatsCache.reconcile();
+        return dashboardStatsCache.getStats();
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventorymanagement.ims.benchmark;
+
+import com.inventorymanagement.ims.product.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic product data for the benchmarks. The same seed and count always produce the same
+// rows, so results from different releases are measured against identical datasets.
+public final class BenchmarkDatasets {
+
+    public static final long SEED = 20240917L;
+
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+    private static final String[] COLORS = {"Red", "Blue", "Green", "Black", "White", "Grey"};
+    private static final int INSERT_BATCH_SIZE = 5_000;
+    // allocationSize of the product_seq generator on Product
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private BenchmarkDatasets() {
+    }
+
+    public static Product product(SplittableRandom random, int index) {
+        Product product = new Product();
+        product.setName("Product-" + index);
+        product.setDescription("Benchmark product " + index);
+        product.setPrice(Math.round(random.nextDouble(1, 500) * 100) / 100.0);
+        product.setQuantity(random.nextInt(0, 10_000));
+        product.setSize(SIZES[random.nextInt(SIZES.length)]);
+        product.setColor(COLORS[random.nextInt(COLORS.length)]);
+        return product;
+    }
+
+    public static List<Product> products(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(random, i));
+        }
+        return products;
+    }
+
+    // Inserts the dataset with plain JDBC batches, seeding a million rows through JPA would
+    // dominate the benchmark setup. Stock is overridden so orders never run out. Ids run from 1 to
+    // count, and the id generator is moved past them afterwards.
+    public static void insertProducts(JdbcTemplate jdbcTemplate, int count, int quantity) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Product product = product(random, i);
+            batch.add(new Object[]{i + 1L, product.getName(), product.getDescription(), product.getPrice(), quantity,
+                    product.getSize(), product.getColor()});
+            if (batch.size() == INSERT_BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, quantity, product_size, "
+                        + "product_color, is_bundle, version) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 0)", batch);
+                batch.clear();
+            }
+        }
+        restartProductIds(jdbcTemplate, count);
+    }
+
+    // Products use a pooled sequence, unless a benchmark maps them back to an identity column
+    private static void restartProductIds(JdbcTemplate jdbcTemplate, int count) {
+        Integer sequences = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_NAME = 'PRODUCT_SEQ'", Integer.class);
+        if (sequences != null && sequences > 0) {
+            // The pooled optimizer takes the next sequence value as the top of a block of ids
+            jdbcTemplate.execute("ALTER SEQUENCE product_seq RESTART WITH " + (count + ID_ALLOCATION_SIZE));
+        } else {
+            jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (count + 1));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.inventorymanagement.ims.benchmark;
+
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductImportResult;
+import com.inventorymanagement.ims.product.ProductService;
+import com.inventorymanagement.ims.purchaseorder.BulkOrderResultDto;
+import com.inventorymanagement.ims.purchaseorder.PurchaseOrderService;
+import com.opencsv.bean.StatefulBeanToCsv;
+import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Insert heavy paths with pooled sequence ids against the IDENTITY baseline. With IDENTITY every
+// insert has to return its generated key, so Hibernate cannot batch them. Each operation writes
+// IMPORT_ROWS new products, or ORDERS orders of ITEMS_PER_ORDER items.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InsertThroughputBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int IMPORT_ROWS = 5_000;
+    private static final int IMPORT_CHUNK_SIZE = 1_000;
+    private static final int ORDERS = 1_000;
+    private static final int ORDERS_CHUNK_SIZE = 500;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"identity", "sequence"})
+    private String idGeneration;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private PurchaseOrderService purchaseOrderService;
+    private byte[] ordersBody;
+    private int importRun;
+    private MockMultipartFile importFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "identity".equals(idGeneration)
+                ? BenchmarkContext.start("inserts-identity",
+                        "--spring.jpa.mapping-resources=META-INF/identity-ids-orm.xml")
+                : BenchmarkContext.start("inserts-sequence");
+        BenchmarkDatasets.insertProducts(context.getBean(JdbcTemplate.class), CATALOG_SIZE, Integer.MAX_VALUE / 2);
+        productService = context.getBean(ProductService.class);
+        purchaseOrderService = context.getBean(PurchaseOrderService.class);
+        ordersBody = ordersBody();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Names are unique per run, so every row of the import is an insert rather than an update
+    @Setup(Level.Invocation)
+    public void nextImportFile() throws Exception {
+        List<Product> products = BenchmarkDatasets.products(IMPORT_ROWS);
+        int run = importRun++;
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setName("Import-" + run + "-" + i);
+        }
+        StringWriter writer = new StringWriter();
+        StatefulBeanToCsv<Product> beanToCsv = new StatefulBeanToCsvBuilder<Product>(writer).build();
+        beanToCsv.write(products);
+        importFile = new MockMultipartFile("file", "products.csv", "text/csv",
+                writer.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ProductImportResult importCsv() {
+        return productService.importProductsFromCsvStreaming(importFile, IMPORT_CHUNK_SIZE);
+    }
+
+    @Benchmark
+    public BulkOrderResultDto createOrdersInBulk() {
+        return purchaseOrderService.createOrdersInBulk(new ByteArrayInputStream(ordersBody), ORDERS_CHUNK_SIZE);
+    }
+
+    // Newline delimited orders over the seeded catalog, whose ids run from 1 to CATALOG_SIZE
+    private static byte[] ordersBody() {
+        SplittableRandom random = new SplittableRandom(BenchmarkDatasets.SEED);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ORDERS; i++) {
+            body.append("{\"items\":[");
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                if (j > 0) {
+                    body.append(',');
+                }
+                body.append("{\"productId\":").append(1 + random.nextInt(CATALOG_SIZE))
+                        .append(",\"quantity\":").append(1 + random.nextInt(5)).append('}');
+            }
+            body.append("]}\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventorymanagement.ims.inventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Single line reservations spread over many products, on one thread and on all cores. The ratio
+// of the two shows how far the engine scales; other thread counts can be run with -t.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockReservationBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+
+    private StockReservationEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new StockReservationEngine();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public StockReservation reserveOneThread() {
+        return reserve();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public StockReservation reserveAllThreads() {
+        return reserve();
+    }
+
+    private StockReservation reserve() {
+        Map<Long, Integer> demand = Map.of((long) ThreadLocalRandom.current().nextInt(PRODUCTS), 1);
+        return engine.reserve(demand, id -> Integer.MAX_VALUE);
+    }
+}
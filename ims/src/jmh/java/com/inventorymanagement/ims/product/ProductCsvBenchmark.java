@@ -0,0 +1,70 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.benchmark.BenchmarkDatasets;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.bean.StatefulBeanToCsv;
+import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// OpenCSV binding of Product in both directions, with the same column mapping the import and
+// export endpoints use
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductCsvBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private List<Product> products;
+    private String csv;
+
+    @Setup
+    public void setUp() throws Exception {
+        products = BenchmarkDatasets.products(rows);
+        csv = write(products);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        CsvToBean<Product> csvToBean = new CsvToBeanBuilder<Product>(new StringReader(csv))
+                .withType(Product.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .build();
+        for (Product product : csvToBean) {
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public String write() throws Exception {
+        return write(products);
+    }
+
+    private static String write(List<Product> products) throws Exception {
+        StringWriter writer = new StringWriter();
+        StatefulBeanToCsv<Product> beanToCsv = new StatefulBeanToCsvBuilder<Product>(writer).build();
+        beanToCsv.write(products);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.benchmark.BenchmarkDatasets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping for a plain product and for bundles of growing size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDtoConversionBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    private int bundleSize;
+
+    private ProductService productService;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        // convertToDto only maps fields, none of the collaborators are touched
+        productService = new ProductService(null, null, null, null, null, null, null, null, null,
+                new SimpleMeterRegistry());
+
+        List<Product> products = BenchmarkDatasets.products(bundleSize + 1);
+        product = products.get(0);
+        product.setId(1L);
+        product.setBundle(bundleSize > 0);
+        for (int i = 1; i <= bundleSize; i++) {
+            Product component = products.get(i);
+            component.setId((long) i + 1);
+            product.getComponents().add(new BundleComponent(product, component, 1));
+        }
+    }
+
+    @Benchmark
+    public ProductDto convertToDto() {
+        return productService.convertToDto(product, product.getQuantity());
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import com.inventorymanagement.ims.benchmark.BenchmarkContext;
+import com.inventorymanagement.ims.benchmark.BenchmarkDatasets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// End to end order placement against an embedded H2 database: product lookup, stock
+// reservation and the order and item inserts, for catalogs of 10k to 1M products
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class CreateOrderBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"10000", "100000", "1000000"})
+    private int productCount;
+
+    private ConfigurableApplicationContext context;
+    private PurchaseOrderService purchaseOrderService;
+    private long firstProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("orders" + productCount);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkDatasets.insertProducts(jdbcTemplate, productCount, Integer.MAX_VALUE / 2);
+        firstProductId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+        purchaseOrderService = context.getBean(PurchaseOrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Each thread draws the same seeded sequence of products, so runs are repeatable
+    @State(Scope.Thread)
+    public static class OrderPicker {
+        private final SplittableRandom random = new SplittableRandom(BenchmarkDatasets.SEED);
+
+        CreatePurchaseOrderDto next(long firstProductId, int productCount) {
+            List<CreatePurchaseOrderItemDto> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                items.add(new CreatePurchaseOrderItemDto(firstProductId + random.nextInt(productCount), 1 + random.nextInt(5)));
+            }
+            return new CreatePurchaseOrderDto(items);
+        }
+    }
+
+    @Benchmark
+    public PurchaseOrderDto createOrder(OrderPicker picker) {
+        return purchaseOrderService.createOrder(picker.next(firstProductId, productCount));
+    }
+}
@@ -0,0 +1,153 @@
+package com.inventorymanagement.ims.analytics;
+
+import com.inventorymanagement.ims.inventory.StockWriteBehindFlusher;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductRepository;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import com.inventorymanagement.ims.purchaseorder.OrderStatus;
+import com.inventorymanagement.ims.purchaseorder.OrderStatusChangedEvent;
+import com.inventorymanagement.ims.purchaseorder.PurchaseOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Dashboard aggregates kept in memory and adjusted by the product and order change events once
+// their transaction commits, so a dashboard read never scans the products table. A periodic
+// reconciliation recomputes everything from the database to correct any drift.
+@Component
+public class DashboardStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsCache.class);
+
+    private final ProductRepository productRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final StockWriteBehindFlusher stockWriteBehindFlusher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong totalProducts = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalInventoryValue = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong pendingOrders = new AtomicLong();
+    // Event deltas are applied under the read lock, reconcile replaces the counters under the write lock
+    private final ReadWriteLock countersLock = new ReentrantReadWriteLock();
+
+    private volatile Instant lastReconciledAt;
+    private volatile Instant lastUpdatedAt;
+
+    public DashboardStatsCache(ProductRepository productRepository, PurchaseOrderRepository purchaseOrderRepository,
+                               StockWriteBehindFlusher stockWriteBehindFlusher,
+                               PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.stockWriteBehindFlusher = stockWriteBehindFlusher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public DashboardStatsDto getStats() {
+        if (lastReconciledAt == null) {
+            reconcile();
+        }
+        Instant reconciledAt = lastReconciledAt;
+        return new DashboardStatsDto(
+                totalProducts.get(),
+                totalInventoryValue.get().setScale(2, RoundingMode.HALF_UP),
+                pendingOrders.get(),
+                reconciledAt,
+                lastUpdatedAt,
+                Duration.between(reconciledAt, Instant.now()).toMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        BigDecimal delta = stockValue(after).subtract(stockValue(before));
+        countersLock.readLock().lock();
+        try {
+            if (before == null && after != null) {
+                totalProducts.incrementAndGet();
+            } else if (before != null && after == null) {
+                totalProducts.decrementAndGet();
+            }
+            if (delta.signum() != 0) {
+                totalInventoryValue.accumulateAndGet(delta, BigDecimal::add);
+            }
+            lastUpdatedAt = Instant.now();
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        countersLock.readLock().lock();
+        try {
+            if (event.previousStatus() == OrderStatus.PENDING) {
+                pendingOrders.decrementAndGet();
+            }
+            if (event.newStatus() == OrderStatus.PENDING) {
+                pendingOrders.incrementAndGet();
+            }
+            lastUpdatedAt = Instant.now();
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    // Runs once at startup to seed the counters, then on a fixed delay. The figures are read in one
+    // transaction and replace the counters outright, so a reconciliation never adds drift of its
+    // own. Event deltas wait while it reads; a change committing meanwhile lands on the new values.
+    @Scheduled(fixedDelayString = "${ims.analytics.dashboard.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        // Reserved stock is only in the engine until the write-behind flusher persists it
+        stockWriteBehindFlusher.flush();
+
+        countersLock.writeLock().lock();
+        try {
+            // Read-write so the counts come from the primary, a replica would hand back its lag as drift
+            DashboardTotals totals = transactionTemplate.execute(status -> new DashboardTotals(
+                    productRepository.count(),
+                    Objects.requireNonNullElse(productRepository.getTotalInventoryValue(), BigDecimal.ZERO),
+                    purchaseOrderRepository.countByStatus(OrderStatus.PENDING)));
+
+            long productDrift = totals.products() - totalProducts.get();
+            BigDecimal valueDrift = totals.inventoryValue().subtract(totalInventoryValue.get());
+            long pendingDrift = totals.pendingOrders() - pendingOrders.get();
+            if (lastReconciledAt != null && (productDrift != 0 || pendingDrift != 0 || valueDrift.signum() != 0)) {
+                log.info("Dashboard stats drifted by {} products, {} inventory value, {} pending orders",
+                        productDrift, valueDrift, pendingDrift);
+            }
+
+            totalProducts.set(totals.products());
+            totalInventoryValue.set(totals.inventoryValue());
+            pendingOrders.set(totals.pendingOrders());
+            lastReconciledAt = Instant.now();
+            lastUpdatedAt = lastReconciledAt;
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+    }
+
+    private record DashboardTotals(long products, BigDecimal inventoryValue, long pendingOrders) {
+    }
+
+    private static BigDecimal stockValue(ProductSnapshot product) {
+        if (product == null) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(product.price()).multiply(BigDecimal.valueOf(product.quantity()));
+    }
+}
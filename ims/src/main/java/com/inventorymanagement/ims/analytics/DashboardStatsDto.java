@@ -1,10 +1,14 @@
 package com.inventorymanagement.ims.analytics;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 public record DashboardStatsDto(
         long totalProducts,
         BigDecimal totalInventoryValue,
-        long pendingOrders
+        long pendingOrders,
+        Instant lastReconciledAt,
+        Instant lastUpdatedAt,
+        long stalenessMillis
 ) {
-}
\ No newline at end of file
+}
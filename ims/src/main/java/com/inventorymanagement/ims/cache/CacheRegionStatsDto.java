@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.cache;
+
+public record CacheRegionStatsDto(
+        String region,
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long evictionWeight
+) {
+}
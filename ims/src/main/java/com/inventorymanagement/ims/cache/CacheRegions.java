@@ -0,0 +1,19 @@
+package com.inventorymanagement.ims.cache;
+
+// Second-level cache regions, referenced from the @Cache annotations on the entities
+public final class CacheRegions {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_COMPONENTS = "product-components";
+    public static final String BUNDLE_COMPONENTS = "bundle-components";
+    public static final String PROMOTIONS = "promotions";
+    public static final String PROMOTION_TIERS = "promotion-tiers";
+    public static final String DISCOUNT_TIERS = "discount-tiers";
+
+    // Hibernate's own regions for cached query results and the table timestamps that invalidate them
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventorymanagement.ims.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatsService {
+
+    private final CacheManager hibernateCacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsService(CacheManager hibernateCacheManager, EntityManagerFactory entityManagerFactory) {
+        this.hibernateCacheManager = hibernateCacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Read from the Caffeine caches behind the JCache regions, counters are since startup
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CacheRegionStatsDto> getStats() {
+        List<CacheRegionStatsDto> stats = new ArrayList<>();
+        for (String region : hibernateCacheManager.getCacheNames()) {
+            Cache<?, ?> cache = hibernateCacheManager.getCache(region).unwrap(Cache.class);
+            CacheStats cacheStats = cache.stats();
+            stats.add(new CacheRegionStatsDto(region, cache.estimatedSize(), cacheStats.hitCount(),
+                    cacheStats.missCount(), cacheStats.hitRate(), cacheStats.evictionCount(),
+                    cacheStats.evictionWeight()));
+        }
+        stats.sort((a, b) -> a.region().compareTo(b.region()));
+        return stats;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventorymanagement.ims.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+// Hibernate second-level and query cache on Caffeine through JCache. Every region is created here
+// with a size bound and a time to live, so nothing falls back to an unbounded default cache.
+// Writes through Hibernate keep the regions current; StockWriteBehindFlusher evicts what it
+// changes behind Hibernate's back.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${ims.cache.entity.max-size:50000}") long entityMaxSize,
+            @Value("${ims.cache.entity.ttl-seconds:600}") long entityTtlSeconds,
+            @Value("${ims.cache.query.max-size:10000}") long queryMaxSize,
+            @Value("${ims.cache.query.ttl-seconds:300}") long queryTtlSeconds) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of its own per application context, so test contexts never share regions
+        CacheManager cacheManager = provider.getCacheManager(URI.create("ims:second-level-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader(), new Properties());
+
+        for (String region : new String[]{CacheRegions.PRODUCTS, CacheRegions.PRODUCT_COMPONENTS,
+                CacheRegions.BUNDLE_COMPONENTS, CacheRegions.PROMOTIONS, CacheRegions.PROMOTION_TIERS,
+                CacheRegions.DISCOUNT_TIERS}) {
+            cacheManager.createCache(region, regionConfiguration(entityMaxSize, entityTtlSeconds));
+        }
+        cacheManager.createCache(CacheRegions.QUERY_RESULTS, regionConfiguration(queryMaxSize, queryTtlSeconds));
+        // Timestamps must outlive every cached query result, an evicted timestamp would let a stale result through
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, regionConfiguration(-1, -1));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, copying it on every read would buy nothing
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventorymanagement.ims.concurrency;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/concurrency")
+public class ConcurrencyController {
+
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+
+    public ConcurrencyController(OptimisticRetryExecutor optimisticRetryExecutor) {
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+    }
+
+    @GetMapping("/conflict-stats")
+    public ResponseEntity<ConflictStatsDto> getConflictStats() {
+        return ResponseEntity.ok(optimisticRetryExecutor.getStats());
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.concurrency;
+
+public record ConflictStatsDto(
+        long conflicts,
+        long retries,
+        // Operations that still conflicted after the last attempt
+        long exhausted
+) {
+}
@@ -0,0 +1,98 @@
+package com.inventorymanagement.ims.concurrency;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Runs a unit of work in its own transaction and re-runs it when a @Version check fails.
+// Each attempt starts a fresh transaction, so it re-reads the current state of the entities
+// instead of retrying with the stale copies that caused the conflict.
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                                   @Value("${ims.concurrency.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${ims.concurrency.retry.initial-backoff-ms:20}") long initialBackoffMillis,
+                                   @Value("${ims.concurrency.retry.max-backoff-ms:500}") long maxBackoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        // Inside an outer transaction a retry would only see the same stale state, so leave
+        // conflict handling to whoever owns that transaction
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                evictStaleEntity(e);
+                backOff(attempt, e);
+                attempt++;
+            }
+        }
+    }
+
+    public void execute(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public ConflictStatsDto getStats() {
+        return new ConflictStatsDto(conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+    // The conflicting entity may have been read from the second-level cache, the retry must read the row
+    private void evictStaleEntity(RuntimeException conflict) {
+        if (conflict instanceof ObjectOptimisticLockingFailureException stale
+                && stale.getPersistentClass() != null && stale.getIdentifier() != null) {
+            entityManagerFactory.getCache().evict(stale.getPersistentClass(), stale.getIdentifier());
+        }
+    }
+
+    // Exponential backoff with full jitter, so writers that collided do not collide again in lockstep
+    private void backOff(int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventorymanagement.ims.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// The flushers, the outbox relay and the aggregators run on @Scheduled. Tests that boot the whole
+// application switch them off with ims.scheduling.enabled=false and drive them by hand.
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "ims.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -26,11 +26,16 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authz -> authz
+                        // Quoting a cart only reads, so any signed in user may call it
+                        .requestMatchers(HttpMethod.POST, "/api/promotions/quote").authenticated()
                         // NEW RULE: Only admins can use POST, PUT, DELETE
                         .requestMatchers(HttpMethod.POST, "/api/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/**").hasRole("ADMIN")
                         .requestMatchers("/", "/*.js", "/*.css").permitAll()
+                        // Liveness for load balancers, metrics and the rest of Actuator for admins only
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(withDefaults()) // USE HTTP BASIC AUTH
@@ -0,0 +1,93 @@
+package com.inventorymanagement.ims.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replaces the single auto-configured pool with a primary pool and one pool per replica behind
+// ReplicaRoutingDataSource, only when ims.datasource.replica-urls is set. Every pool takes the
+// spring.datasource.hikari settings, so auto-commit and sizing match across them.
+@Configuration
+@ConditionalOnProperty("ims.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public WriteStickiness writeStickiness(@Value("${ims.datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+                                           @Value("${ims.datasource.replica.check-interval-ms:500}") long checkIntervalMillis) {
+        // A replica in rotation can fall behind by one more interval before the next check
+        return new WriteStickiness(maxLagMillis + checkIntervalMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, Environment environment, WriteStickiness writeStickiness,
+            MeterRegistry meterRegistry,
+            @Value("${ims.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${ims.datasource.replica.username:}") String replicaUsername,
+            @Value("${ims.datasource.replica.password:}") String replicaPassword) {
+        List<String> urls = replicaUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("ims.datasource.replica-urls must name at least one replica");
+        }
+
+        HikariDataSource primary = pool(properties, environment, meterRegistry, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), ReplicaRoutingDataSource.PRIMARY);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String key = "replica-" + (i + 1);
+            HikariDataSource replica = pool(properties, environment, meterRegistry, urls.get(i),
+                    replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername,
+                    replicaUsername.isEmpty() ? properties.determinePassword() : replicaPassword, key);
+            replica.setReadOnly(true);
+            replicas.put(key, replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, writeStickiness);
+    }
+
+    // What JPA, JdbcTemplate and the transaction manager use
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               WriteStickiness writeStickiness, MeterRegistry meterRegistry,
+                                               @Value("${ims.datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+                                               @Value("${ims.datasource.replica.check-interval-ms:500}") long checkIntervalMillis) {
+        if (checkIntervalMillis >= maxLagMillis) {
+            throw new IllegalArgumentException("ims.datasource.replica.check-interval-ms must be below max-lag-ms");
+        }
+        return new ReplicaLagMonitor(replicaRoutingDataSource, writeStickiness, meterRegistry, maxLagMillis);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                         String url, String username, String password, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventorymanagement.ims.datasource;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Single row the lag monitor rewrites on the primary and reads back from every replica. Only
+// mapped so the schema update creates the table; it is read and written with plain JDBC.
+@Data
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Long id;
+
+    private long beatAtMillis;
+}
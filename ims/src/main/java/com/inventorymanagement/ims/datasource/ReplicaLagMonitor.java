@@ -0,0 +1,90 @@
+package com.inventorymanagement.ims.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Estimates how far each replica is behind from a heartbeat row: every run first reads the
+// replicated beat from each replica, then writes the current time on the primary. A replica holds
+// everything up to its beat, so it is at most now minus that beat behind. Replicas over the bound,
+// or that cannot be read, leave the rotation until they catch up.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final WriteStickiness writeStickiness;
+    private final JdbcTemplate primary;
+    private final TransactionTemplate primaryTransaction;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, WriteStickiness writeStickiness,
+                             MeterRegistry meterRegistry, long maxLagMillis) {
+        this.routingDataSource = routingDataSource;
+        this.writeStickiness = writeStickiness;
+        this.primary = new JdbcTemplate(routingDataSource.primary());
+        // The pools may not auto-commit, so the beat is written in a transaction of its own
+        this.primaryTransaction = new TransactionTemplate(new DataSourceTransactionManager(routingDataSource.primary()));
+        this.maxLagMillis = maxLagMillis;
+        routingDataSource.replicas().forEach((key, dataSource) -> {
+            replicas.put(key, new JdbcTemplate(dataSource));
+            lagMillis.put(key, Long.MAX_VALUE);
+            Gauge.builder("ims.datasource.replica.lag", lagMillis, lags -> lags.get(key) == Long.MAX_VALUE ? Double.NaN : lags.get(key))
+                    .description("Estimated replication lag, NaN while the replica cannot be read")
+                    .baseUnit("milliseconds")
+                    .tag("replica", key)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ims.datasource.replica.check-interval-ms:500}")
+    public synchronized void check() {
+        long now = System.currentTimeMillis();
+        replicas.forEach((key, replica) -> {
+            long lag;
+            try {
+                Long beat = replica.queryForObject("SELECT beat_at_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+                lag = beat == null ? Long.MAX_VALUE : Math.max(0, now - beat);
+            } catch (DataAccessException e) {
+                lag = Long.MAX_VALUE;
+            }
+            lagMillis.put(key, lag);
+            boolean lagging = lag > maxLagMillis;
+            if (routingDataSource.setLagging(key, lagging)) {
+                if (lagging) {
+                    log.warn("Replica {} is {} behind, reads go to the other replicas or the primary", key,
+                            lag == Long.MAX_VALUE ? "unreachable or" : lag + " ms");
+                } else {
+                    log.info("Replica {} caught up ({} ms), back in rotation", key, lag);
+                }
+            }
+        });
+
+        try {
+            primaryTransaction.executeWithoutResult(status -> {
+                if (primary.update("UPDATE replica_heartbeat SET beat_at_millis = ? WHERE id = 1", now) == 0) {
+                    primary.update("INSERT INTO replica_heartbeat (id, beat_at_millis) VALUES (1, ?)", now);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to write the replica heartbeat", e);
+        }
+        writeStickiness.evictExpired();
+    }
+
+    public Map<String, Long> lagMillis() {
+        return Map.copyOf(lagMillis);
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventorymanagement.ims.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to the replicas in turn and everything else to the primary.
+// Replicas the lag monitor has found too far behind are skipped, and with none left, or while
+// the current user's own writes may not have reached them, reads stay on the primary. Must be
+// wrapped in a LazyConnectionDataSourceProxy: without it the connection is taken when the
+// transaction begins, before the transaction is marked read-only.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    // In configuration order
+    private final Map<String, DataSource> replicas;
+    private final WriteStickiness writeStickiness;
+    private final Set<String> lagging = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> inRotation;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, WriteStickiness writeStickiness) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.writeStickiness = writeStickiness;
+        this.inRotation = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeStickiness.recordWriteOnCommit();
+            return PRIMARY;
+        }
+        List<String> candidates = inRotation;
+        if (candidates.isEmpty() || writeStickiness.isSticky()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Returns whether the replica's state changed
+    public synchronized boolean setLagging(String replica, boolean isLagging) {
+        boolean changed = isLagging ? lagging.add(replica) : lagging.remove(replica);
+        if (changed) {
+            inRotation = replicas.keySet().stream().filter(key -> !lagging.contains(key)).toList();
+        }
+        return changed;
+    }
+
+    public List<String> replicasInRotation() {
+        return inRotation;
+    }
+
+    DataSource primary() {
+        return primary;
+    }
+
+    Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventorymanagement.ims.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Read-your-writes per user. When a transaction that was allowed to write commits, the user's
+// read-only transactions stay on the primary for the window, which covers the most a replica in
+// rotation can be behind. Other users keep reading from the replicas.
+public class WriteStickiness {
+
+    private static final Object TRANSACTION_MARKER = new Object();
+
+    private final long windowMillis;
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public WriteStickiness(long windowMillis) {
+        this.windowMillis = windowMillis;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    // How long after a commit a replica may still be missing it
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    // Called when a read-write transaction takes its connection; the window starts at commit
+    void recordWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TRANSACTION_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_MARKER, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_MARKER);
+                if (status == STATUS_COMMITTED) {
+                    lastWriteByUser.put(user, System.nanoTime());
+                }
+            }
+        });
+    }
+
+    boolean isSticky() {
+        String user = currentUser();
+        Long writtenAt = user == null ? null : lastWriteByUser.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteByUser.remove(user, writtenAt);
+        return false;
+    }
+
+    void evictExpired() {
+        long now = System.nanoTime();
+        lastWriteByUser.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
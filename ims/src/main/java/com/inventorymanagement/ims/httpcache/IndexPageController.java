@@ -0,0 +1,63 @@
+package com.inventorymanagement.ims.httpcache;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Serves index.html with its script and stylesheet links pointing at the fingerprinted names
+// from StaticAssetConfig. The page itself is always revalidated, so a new build is picked up on
+// the next load while the assets it names stay cached.
+@RestController
+public class IndexPageController {
+
+    private static final Pattern LOCAL_ASSET = Pattern.compile("(src|href)=\"([\\w./-]+\\.(?:js|css))\"");
+
+    private final ResourceUrlProvider resourceUrlProvider;
+    private volatile String page;
+    private volatile String etag;
+
+    public IndexPageController(ResourceUrlProvider resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    @GetMapping(value = "/", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> index() throws IOException {
+        if (page == null) {
+            render();
+        }
+        // ResponseEntity with an ETag is answered with 304 by Spring when If-None-Match matches
+        return ResponseEntity.ok().eTag(etag).cacheControl(ResourceVersions.REVALIDATE).body(page);
+    }
+
+    // Rendered once, the resource chain only knows the hashed names after the context has started
+    private synchronized void render() throws IOException {
+        if (page != null) {
+            return;
+        }
+        String html;
+        try (InputStream in = new ClassPathResource("static/index.html").getInputStream()) {
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Matcher matcher = LOCAL_ASSET.matcher(html);
+        StringBuilder rewritten = new StringBuilder();
+        while (matcher.find()) {
+            String path = matcher.group(2).startsWith("/") ? matcher.group(2) : "/" + matcher.group(2);
+            String versioned = resourceUrlProvider.getForLookupPath(path);
+            String replacement = matcher.group(1) + "=\"" + (versioned != null ? versioned : matcher.group(2)) + "\"";
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(rewritten);
+        etag = "W/\"" + DigestUtils.md5DigestAsHex(rewritten.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        page = rewritten.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package com.inventorymanagement.ims.httpcache;
+
+import com.inventorymanagement.ims.datasource.WriteStickiness;
+import com.inventorymanagement.ims.inventory.StockCountersFlushedEvent;
+import com.inventorymanagement.ims.product.BundleCompositionChangedEvent;
+import com.inventorymanagement.ims.product.BundleGraph;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import com.inventorymanagement.ims.promotion.PromotionsChangedEvent;
+import com.inventorymanagement.ims.purchaseorder.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version counters behind the ETags of the catalog and order listings, advanced by the same
+// events that keep the in-memory indexes current, so a conditional GET is answered from memory.
+// A tag is taken before the response is read, so a change racing with a read can only make the
+// next request miss, never hide the change. Two sources of stale reads are covered by advancing
+// again: the stock write-behind, when the counters reach the products table, and replica lag,
+// once the read-your-writes window has passed. Tags carry the start time, so they never repeat
+// across restarts, and are weak so that response compression still applies.
+@Component
+public class ResourceVersions {
+
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final BundleGraph bundleGraph;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<VersionedCollection, Version> versions = new EnumMap<>(VersionedCollection.class);
+    // Changes per product id, entries stay after deletion so a deleted product's tag never matches
+    private final Map<Long, Long> productStamps = new ConcurrentHashMap<>();
+    private final long settleMillis;
+    private final ScheduledExecutorService settler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("etag-settle").daemon().factory());
+
+    public ResourceVersions(BundleGraph bundleGraph, ObjectProvider<WriteStickiness> writeStickiness) {
+        this.bundleGraph = bundleGraph;
+        WriteStickiness stickiness = writeStickiness.getIfAvailable();
+        this.settleMillis = stickiness == null ? 0 : stickiness.windowMillis();
+        for (VersionedCollection collection : VersionedCollection.values()) {
+            versions.put(collection, new Version());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        settler.shutdownNow();
+    }
+
+    // Sets the cache headers and answers If-None-Match. Returns true when a 304 has been prepared
+    // and the handler should return without a body.
+    public static boolean notModified(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+
+    public String collectionTag(VersionedCollection collection) {
+        return "W/\"" + collection.name().toLowerCase(Locale.ROOT) + "-" + epoch + "-" + versions.get(collection).current.get() + "\"";
+    }
+
+    // A bundle's stock and component names follow its components, so bundles use the whole catalog's version
+    public String productTag(Long productId) {
+        if (bundleGraph.isBundle(productId)) {
+            return "W/\"product-" + productId + "-" + epoch + "-c" + versions.get(VersionedCollection.PRODUCTS).current.get() + "\"";
+        }
+        return "W/\"product-" + productId + "-" + epoch + "-" + productStamps.getOrDefault(productId, 0L)
+                + "." + versions.get(VersionedCollection.PRODUCTS).settled.get() + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        productStamps.merge(after != null ? after.id() : before.id(), 1L, Long::sum);
+        advance(VersionedCollection.PRODUCTS);
+        // Promotions and order lines show product names
+        if (before != null && (after == null || !Objects.equals(before.name(), after.name()))) {
+            advance(VersionedCollection.PROMOTIONS);
+            advance(VersionedCollection.PURCHASE_ORDERS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBundleCompositionChanged(BundleCompositionChangedEvent event) {
+        advance(VersionedCollection.PRODUCTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionsChanged(PromotionsChangedEvent event) {
+        advance(VersionedCollection.PROMOTIONS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        advance(VersionedCollection.PURCHASE_ORDERS);
+    }
+
+    // Listings read quantities from the products table, which only now has what the events announced
+    @EventListener
+    public void onStockCountersFlushed(StockCountersFlushedEvent event) {
+        event.productIds().forEach(productId -> productStamps.merge(productId, 1L, Long::sum));
+        advance(VersionedCollection.PRODUCTS);
+    }
+
+    private void advance(VersionedCollection collection) {
+        Version version = versions.get(collection);
+        version.current.incrementAndGet();
+        version.lastChangeNanos.set(System.nanoTime());
+        if (settleMillis > 0 && version.settlePending.compareAndSet(false, true)) {
+            settler.schedule(() -> settle(collection), settleMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Invalidates tags handed out while a replica could still have been serving the old data,
+    // waiting longer if there were more changes in the meantime
+    private void settle(VersionedCollection collection) {
+        Version version = versions.get(collection);
+        version.current.incrementAndGet();
+        version.settled.incrementAndGet();
+        version.settlePending.set(false);
+        long sinceLastChange = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - version.lastChangeNanos.get());
+        if (sinceLastChange < settleMillis && version.settlePending.compareAndSet(false, true)) {
+            settler.schedule(() -> settle(collection), settleMillis - sinceLastChange, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Version {
+        final AtomicLong current = new AtomicLong();
+        final AtomicLong settled = new AtomicLong();
+        final AtomicLong lastChangeNanos = new AtomicLong();
+        final AtomicBoolean settlePending = new AtomicBoolean();
+    }
+}
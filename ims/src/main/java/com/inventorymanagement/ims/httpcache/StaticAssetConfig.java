@@ -0,0 +1,50 @@
+package com.inventorymanagement.ims.httpcache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Scripts and stylesheets are served under content hashed names (app-<md5>.js), which change
+// whenever the file does, so browsers may keep them for a year without asking again.
+// IndexPageController rewrites the page's references to those names. The plain names still
+// resolve for pages that link them directly, but their content changes under the same URL, so
+// they are always revalidated. Pages under /pages are left to the default handler.
+@Configuration
+public class StaticAssetConfig implements WebMvcConfigurer {
+
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*-[0-9a-f]{32}\\.(?:js|css)");
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // No cache control on the handler, it would apply to both names; the interceptor sets it
+        registry.addResourceHandler("/*.js", "/*.css")
+                .addResourceLocations("classpath:/static/")
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                CacheControl cacheControl = FINGERPRINTED.matcher(request.getRequestURI()).matches()
+                        ? IMMUTABLE
+                        : CacheControl.noCache();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns("/*.js", "/*.css");
+    }
+}
@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.httpcache;
+
+public enum VersionedCollection {
+    PRODUCTS,
+    PROMOTIONS,
+    PURCHASE_ORDERS
+}
@@ -0,0 +1,53 @@
+package com.inventorymanagement.ims.importjob;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// A CSV import running in the background. The row counters are advanced in the same transaction
+// that commits each chunk, so rowsProcessed is always the checkpoint a failed job resumes from.
+@Data
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    // Where the upload was spooled, removed once the job completes or is cancelled
+    @Column(nullable = false)
+    private String spoolPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportJobStatus status;
+
+    private int chunkSize;
+    private long totalBytes;
+    private long bytesProcessed;
+    private long rowsProcessed;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private int chunksCommitted;
+    private boolean cancelRequested;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private String submittedBy;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Start of the current run and the checkpoint it started from, for the throughput figures
+    private Instant startedAt;
+    private long rowsAtStart;
+
+    private Instant finishedAt;
+}
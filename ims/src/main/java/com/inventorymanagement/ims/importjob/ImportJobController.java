@@ -0,0 +1,50 @@
+package com.inventorymanagement.ims.importjob;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/import")
+@CrossOrigin
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ImportJobDto> submitImport(@RequestParam("file") MultipartFile file,
+                                                     @RequestParam(defaultValue = "1000") int chunkSize) {
+        ImportJobDto job = importJobService.submit(file, chunkSize);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/import/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ImportJobDto>> listJobs() {
+        return ResponseEntity.ok(importJobService.listJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobDto> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<ImportJobDto> resumeJob(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.resume(id));
+    }
+
+    @PostMapping("/jobs/{id}/cancel")
+    public ResponseEntity<ImportJobDto> cancelJob(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.cancel(id));
+    }
+}
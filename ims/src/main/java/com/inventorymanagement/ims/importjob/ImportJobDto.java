@@ -0,0 +1,59 @@
+package com.inventorymanagement.ims.importjob;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record ImportJobDto(
+        Long id,
+        String fileName,
+        ImportJobStatus status,
+        long rowsProcessed,
+        long inserted,
+        long updated,
+        long rejected,
+        int chunksCommitted,
+        long bytesProcessed,
+        long totalBytes,
+        double percentComplete,
+        double rowsPerSecond,
+        Long etaSeconds,
+        boolean cancelRequested,
+        String errorMessage,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {
+
+    // Throughput covers the current run only. The ETA extrapolates the bytes still to read at the
+    // bytes per row seen so far, since the row count of the upload is not known up front.
+    public static ImportJobDto from(ImportJob job, Instant now) {
+        double rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+            double seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+            if (seconds > 0) {
+                rowsPerSecond = (job.getRowsProcessed() - job.getRowsAtStart()) / seconds;
+            }
+        }
+
+        double percentComplete = job.getTotalBytes() > 0
+                ? Math.min(100.0, 100.0 * job.getBytesProcessed() / job.getTotalBytes())
+                : 0;
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            percentComplete = 100.0;
+        }
+
+        Long etaSeconds = null;
+        if (job.getStatus() == ImportJobStatus.RUNNING && rowsPerSecond > 0 && job.getBytesProcessed() > 0) {
+            double bytesPerRow = (double) job.getBytesProcessed() / job.getRowsProcessed();
+            double rowsLeft = Math.max(0, job.getTotalBytes() - job.getBytesProcessed()) / bytesPerRow;
+            etaSeconds = Math.round(rowsLeft / rowsPerSecond);
+        }
+
+        return new ImportJobDto(job.getId(), job.getFileName(), job.getStatus(), job.getRowsProcessed(),
+                job.getInserted(), job.getUpdated(), job.getRejected(), job.getChunksCommitted(),
+                job.getBytesProcessed(), job.getTotalBytes(), percentComplete, rowsPerSecond, etaSeconds,
+                job.isCancelRequested(), job.getErrorMessage(), job.getCreatedAt(), job.getStartedAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventorymanagement.ims.importjob;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findAllByOrderByIdDesc(Limit limit);
+
+    List<ImportJob> findByStatusInOrderByIdAsc(Collection<ImportJobStatus> statuses);
+
+    @Query("SELECT j.cancelRequested FROM ImportJob j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.cancelRequested = true WHERE j.id = :id")
+    int requestCancel(@Param("id") Long id);
+
+    // The state changes below are targeted updates rather than saves of a loaded job, so they never
+    // write back a stale cancelRequested over a cancel that landed in between
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = com.inventorymanagement.ims.importjob.ImportJobStatus.RUNNING, "
+            + "j.startedAt = :startedAt, j.rowsAtStart = j.rowsProcessed, j.finishedAt = null, j.errorMessage = null "
+            + "WHERE j.id = :id")
+    int markRunning(@Param("id") Long id, @Param("startedAt") Instant startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :status, j.finishedAt = :finishedAt, j.errorMessage = :errorMessage "
+            + "WHERE j.id = :id")
+    int markFinished(@Param("id") Long id, @Param("status") ImportJobStatus status,
+                     @Param("finishedAt") Instant finishedAt, @Param("errorMessage") String errorMessage);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = com.inventorymanagement.ims.importjob.ImportJobStatus.COMPLETED, "
+            + "j.finishedAt = :finishedAt, j.errorMessage = null, j.bytesProcessed = j.totalBytes WHERE j.id = :id")
+    int markCompleted(@Param("id") Long id, @Param("finishedAt") Instant finishedAt);
+
+    // Only moves a job that is still in the expected state, 0 means someone else moved it first
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :status, j.errorMessage = null WHERE j.id = :id AND j.status = :expected")
+    int transition(@Param("id") Long id, @Param("expected") ImportJobStatus expected, @Param("status") ImportJobStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = com.inventorymanagement.ims.importjob.ImportJobStatus.CANCELLED, "
+            + "j.cancelRequested = true, j.finishedAt = :finishedAt "
+            + "WHERE j.id = :id AND j.status = com.inventorymanagement.ims.importjob.ImportJobStatus.FAILED")
+    int cancelFailed(@Param("id") Long id, @Param("finishedAt") Instant finishedAt);
+
+    // Joins the transaction of the chunk it records, so the checkpoint commits with the rows
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.rowsProcessed = j.rowsProcessed + :rows, j.inserted = j.inserted + :inserted, "
+            + "j.updated = j.updated + :updated, j.rejected = j.rejected + :rejected, "
+            + "j.chunksCommitted = j.chunksCommitted + 1, j.bytesProcessed = :bytesProcessed WHERE j.id = :id")
+    int recordChunk(@Param("id") Long id, @Param("rows") long rows, @Param("inserted") long inserted,
+                    @Param("updated") long updated, @Param("rejected") long rejected,
+                    @Param("bytesProcessed") long bytesProcessed);
+}
@@ -0,0 +1,224 @@
+package com.inventorymanagement.ims.importjob;
+
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import com.inventorymanagement.ims.product.ImportChunkResult;
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductImportChunkWriter;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs import jobs on virtual threads, with a semaphore capping how many write to the database at
+// once; jobs over the limit wait their turn in the queued state. Each chunk goes through the same
+// writer as the streaming import and advances the job's checkpoint in the chunk's transaction.
+@Component
+public class ImportJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobRunner.class);
+
+    private final ImportJobRepository importJobRepository;
+    private final ProductImportChunkWriter importChunkWriter;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("import-job-", 0).factory());
+
+    public ImportJobRunner(ImportJobRepository importJobRepository, ProductImportChunkWriter importChunkWriter,
+                           OptimisticRetryExecutor optimisticRetryExecutor,
+                           @Value("${ims.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.importJobRepository = importJobRepository;
+        this.importChunkWriter = importChunkWriter;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.permits = new Semaphore(maxConcurrentJobs, true);
+    }
+
+    // Jobs cut off by a shutdown pick up again from their last committed chunk
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByStatusInOrderByIdAsc(
+                EnumSet.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))) {
+            log.info("Resuming import job {} from row {}", job.getId(), job.getRowsProcessed());
+            submit(job.getId());
+        }
+    }
+
+    public void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run(Long jobId) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            ImportJob job = importJobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus().isFinished()) {
+                return;
+            }
+            if (job.isCancelRequested()) {
+                finish(jobId, ImportJobStatus.CANCELLED, null);
+                return;
+            }
+            importJobRepository.markRunning(jobId, Instant.now());
+
+            ImportJobStatus outcome = process(job);
+            finish(jobId, outcome, null);
+        } catch (InterruptedException e) {
+            // Shutting down, the job stays RUNNING and is resumed on the next start
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Import job {} failed", jobId, e);
+            finish(jobId, ImportJobStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private ImportJobStatus process(ImportJob job) throws IOException, InterruptedException {
+        Long jobId = job.getId();
+        int chunkSize = job.getChunkSize();
+        int chunkNumber = job.getChunksCommitted();
+        long remainingToSkip = job.getRowsProcessed();
+        AtomicInteger parseRejected = new AtomicInteger();
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(Path.of(job.getSpoolPath())));
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            CsvToBean<Product> csvToBean = new CsvToBeanBuilder<Product>(reader)
+                    .withType(Product.class)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .withExceptionHandler(e -> {
+                        parseRejected.incrementAndGet();
+                        return null;
+                    })
+                    .build();
+
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            for (Product csvProduct : csvToBean) {
+                if (remainingToSkip > 0) {
+                    // Committed by an earlier run, a checkpoint always ends on a parsed row
+                    remainingToSkip -= 1 + parseRejected.getAndSet(0);
+                    continue;
+                }
+                chunk.add(csvProduct);
+                if (chunk.size() == chunkSize) {
+                    if (cancelled(jobId)) {
+                        return ImportJobStatus.CANCELLED;
+                    }
+                    writeChunk(jobId, ++chunkNumber, chunk, parseRejected.getAndSet(0), in.count());
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty() || parseRejected.get() > 0) {
+                if (cancelled(jobId)) {
+                    return ImportJobStatus.CANCELLED;
+                }
+                writeChunk(jobId, ++chunkNumber, chunk, parseRejected.getAndSet(0), in.count());
+            }
+        }
+        return ImportJobStatus.COMPLETED;
+    }
+
+    private boolean cancelled(Long jobId) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return importJobRepository.isCancelRequested(jobId);
+    }
+
+    private void writeChunk(Long jobId, int chunkNumber, List<Product> rows, int parseRejected, long bytesRead) {
+        optimisticRetryExecutor.execute(() -> {
+            ImportChunkResult result = importChunkWriter.writeChunk(chunkNumber, rows, parseRejected);
+            importJobRepository.recordChunk(jobId, result.rows(), result.inserted(), result.updated(),
+                    result.rejected(), bytesRead);
+            return result;
+        });
+    }
+
+    private void finish(Long jobId, ImportJobStatus status, String errorMessage) {
+        Instant now = Instant.now();
+        int changed = status == ImportJobStatus.COMPLETED
+                ? importJobRepository.markCompleted(jobId, now)
+                : importJobRepository.markFinished(jobId, status, now,
+                        errorMessage != null && errorMessage.length() > 1000 ? errorMessage.substring(0, 1000) : errorMessage);
+        ImportJob job = changed == 0 ? null : importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        if (status.isFinished()) {
+            deleteSpoolFile(job);
+        }
+        log.info("Import job {} {} after {} rows", jobId, status, job.getRowsProcessed());
+    }
+
+    static void deleteSpoolFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(Path.of(job.getSpoolPath()));
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", job.getSpoolPath(), e);
+        }
+    }
+
+    // Bytes handed to the CSV reader so far, which runs a buffer ahead of the committed rows
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.inventorymanagement.ims.importjob;
+
+import com.inventorymanagement.ims.exception.ConflictException;
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class ImportJobService {
+
+    private static final int MAX_CHUNK_SIZE = 10_000;
+    private static final int MAX_LISTED_JOBS = 50;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobRunner importJobRunner;
+    private final Path spoolDirectory;
+
+    public ImportJobService(ImportJobRepository importJobRepository, ImportJobRunner importJobRunner,
+                            @Value("${ims.import.spool-dir:import-spool}") String spoolDirectory) {
+        this.importJobRepository = importJobRepository;
+        this.importJobRunner = importJobRunner;
+        this.spoolDirectory = Path.of(spoolDirectory).toAbsolutePath();
+    }
+
+    // The upload is moved to the spool directory before the request returns, so the job can be
+    // re-read from the start on resume and never has to be held in memory
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportJobDto submit(MultipartFile file, int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty");
+        }
+
+        Path spoolFile;
+        try {
+            Files.createDirectories(spoolDirectory);
+            spoolFile = Files.createTempFile(spoolDirectory, "import-", ".csv");
+            file.transferTo(spoolFile.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spool the uploaded file", e);
+        }
+
+        ImportJob job = new ImportJob();
+        job.setFileName(file.getOriginalFilename() != null ? file.getOriginalFilename() : spoolFile.getFileName().toString());
+        job.setSpoolPath(spoolFile.toString());
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setChunkSize(chunkSize);
+        job.setTotalBytes(file.getSize());
+        job.setCreatedAt(Instant.now());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        job.setSubmittedBy(authentication != null ? authentication.getName() : null);
+        ImportJob savedJob = importJobRepository.save(job);
+
+        importJobRunner.submit(savedJob.getId());
+        return ImportJobDto.from(savedJob, Instant.now());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportJobDto getJob(Long id) {
+        return ImportJobDto.from(findJob(id), Instant.now());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ImportJobDto> listJobs() {
+        Instant now = Instant.now();
+        return importJobRepository.findAllByOrderByIdDesc(Limit.of(MAX_LISTED_JOBS)).stream()
+                .map(job -> ImportJobDto.from(job, now))
+                .toList();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportJobDto resume(Long id) {
+        ImportJob job = findJob(id);
+        if (importJobRepository.transition(id, ImportJobStatus.FAILED, ImportJobStatus.QUEUED) == 0) {
+            throw new ConflictException("Only failed import jobs can be resumed, job " + id + " is " + job.getStatus());
+        }
+        importJobRunner.submit(id);
+        return ImportJobDto.from(findJob(id), Instant.now());
+    }
+
+    // A queued or running job stops at its next chunk boundary, keeping the chunks already committed
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportJobDto cancel(Long id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus().isFinished()) {
+            throw new ConflictException("Import job " + id + " is already " + job.getStatus());
+        }
+        if (job.getStatus() == ImportJobStatus.FAILED && importJobRepository.cancelFailed(id, Instant.now()) > 0) {
+            ImportJobRunner.deleteSpoolFile(job);
+            return ImportJobDto.from(findJob(id), Instant.now());
+        }
+        importJobRepository.requestCancel(id);
+        return ImportJobDto.from(findJob(id), Instant.now());
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id: " + id));
+    }
+}
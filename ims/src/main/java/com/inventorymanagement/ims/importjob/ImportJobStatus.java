@@ -0,0 +1,13 @@
+package com.inventorymanagement.ims.importjob;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.inventorymanagement.ims.inventory;
+
+public class InsufficientStockException extends IllegalStateException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, int requested, int available) {
+        super("Not enough stock for product id: " + productId + " (requested " + requested + ", available " + available + ")");
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventorymanagement.ims.inventory;
+
+// Notified by StockReservationEngine when a counter is created, overwritten or dropped. Callbacks
+// run on the caller's thread, seeding inside the engine's map update, so they must be quick and
+// must not call back into the engine for the same product.
+public interface StockCounterListener {
+
+    void counterSeeded(Long productId, int initialStock);
+
+    // An absolute change moved the counter by delta
+    void counterOverwritten(Long productId, int delta);
+
+    void counterForgotten(Long productId);
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.inventory;
+
+import java.util.Set;
+
+// Published once a batch of counters has been written to the products table, so anything that
+// reads quantities from there knows they changed
+public record StockCountersFlushedEvent(
+        Set<Long> productIds
+) {
+}
@@ -0,0 +1,11 @@
+package com.inventorymanagement.ims.inventory;
+
+import java.util.Map;
+
+// Quantities taken from the engine for one order, keyed by product id, and the stock each
+// counter was left with by this reservation's own decrement
+public record StockReservation(
+        Map<Long, Integer> quantities,
+        Map<Long, Integer> remaining
+) {
+}
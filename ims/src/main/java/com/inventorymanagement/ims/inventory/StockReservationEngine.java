@@ -0,0 +1,195 @@
+package com.inventorymanagement.ims.inventory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+// Authoritative available stock per product, held in atomic counters so concurrent orders never
+// oversell and never block each other on a database row lock. Counters are seeded lazily from
+// the products table the first time a product is reserved. Changed counters are marked dirty
+// and written back to the database in batches by StockWriteBehindFlusher. Listeners hear about
+// seeding and absolute changes; reservations and releases are left to the caller to pass on.
+@Component
+public class StockReservationEngine {
+
+    private final ConcurrentHashMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final List<StockCounterListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(StockCounterListener listener) {
+        listeners.add(listener);
+    }
+
+    // Takes every line of the demand or none of them. Each counter is decremented with a CAS loop,
+    // and if any line cannot be satisfied the lines already taken are put back before failing.
+    public StockReservation reserve(Map<Long, Integer> demand, ToIntFunction<Long> initialStock) {
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        Map<Long, AtomicInteger> takenCounters = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : demand.entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            AtomicInteger counter = counter(productId, initialStock);
+
+            int left = tryTake(counter, quantity);
+            if (left < 0) {
+                taken.forEach((takenId, takenQuantity) -> takenCounters.get(takenId).addAndGet(takenQuantity));
+                throw new InsufficientStockException(productId, quantity, counter.get());
+            }
+            taken.put(productId, quantity);
+            remaining.put(productId, left);
+            takenCounters.put(productId, counter);
+        }
+
+        dirty.addAll(taken.keySet());
+        return new StockReservation(taken, remaining);
+    }
+
+    // Returns the stock of a reservation whose order was not committed
+    public void release(StockReservation reservation) {
+        reservation.quantities().forEach((productId, quantity) -> {
+            AtomicInteger counter = available.get(productId);
+            if (counter != null) {
+                counter.addAndGet(quantity);
+                dirty.add(productId);
+            }
+        });
+    }
+
+    // Replaces the available stock after an absolute change such as an admin update or an import
+    public void overwrite(Long productId, int quantity) {
+        int previous = counter(productId, id -> quantity).getAndSet(quantity);
+        dirty.add(productId);
+        if (previous != quantity) {
+            listeners.forEach(listener -> listener.counterOverwritten(productId, quantity - previous));
+        }
+    }
+
+    // Adds a signed delta, failing rather than taking the counter below zero. Returns the new value.
+    public int adjust(Long productId, int delta, ToIntFunction<Long> initialStock) {
+        AtomicInteger counter = counter(productId, initialStock);
+        while (true) {
+            int current = counter.get();
+            if (current + delta < 0) {
+                throw new InsufficientStockException(productId, -delta, current);
+            }
+            if (counter.compareAndSet(current, current + delta)) {
+                dirty.add(productId);
+                return current + delta;
+            }
+        }
+    }
+
+    // Seeds the counter if it is not tracked yet and returns its current value
+    public int track(Long productId, ToIntFunction<Long> initialStock) {
+        return counter(productId, initialStock).get();
+    }
+
+    // Applies the overwrites once the surrounding transaction commits, or straight away without one
+    public void overwriteAfterCommit(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            quantities.forEach(this::overwrite);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                quantities.forEach(StockReservationEngine.this::overwrite);
+            }
+        });
+    }
+
+    // Releases the reservation if the surrounding transaction rolls back
+    public void releaseOnRollback(StockReservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    public void forget(Long productId) {
+        available.remove(productId);
+        dirty.remove(productId);
+        listeners.forEach(listener -> listener.counterForgotten(productId));
+    }
+
+    public OptionalInt available(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.get());
+    }
+
+    // Snapshot of the current value of every counter changed since the last drain. The dirty mark
+    // is cleared before the counter is read, so a change racing with the drain is picked up again
+    // by the next one and the products table always converges on the counter value.
+    public Map<Long, Integer> drainDirty() {
+        Map<Long, Integer> snapshot = new HashMap<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long productId = it.next();
+            it.remove();
+            AtomicInteger counter = available.get(productId);
+            if (counter != null) {
+                snapshot.put(productId, counter.get());
+            }
+        }
+        return snapshot;
+    }
+
+    public int trackedCount() {
+        return available.size();
+    }
+
+    // Counters changed since the last flush, the write-behind backlog
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    public void markDirty(Iterable<Long> productIds) {
+        for (Long productId : productIds) {
+            dirty.add(productId);
+        }
+    }
+
+    // Listeners are told about a new counter before anything can be taken from it
+    private AtomicInteger counter(Long productId, ToIntFunction<Long> initialStock) {
+        return available.computeIfAbsent(productId, id -> {
+            int initial = initialStock.applyAsInt(id);
+            listeners.forEach(listener -> listener.counterSeeded(id, initial));
+            return new AtomicInteger(initial);
+        });
+    }
+
+    // Returns the value the counter was left with, or -1 if there was not enough stock
+    private static int tryTake(AtomicInteger counter, int quantity) {
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return -1;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.inventorymanagement.ims.inventory;
+
+import com.inventorymanagement.ims.product.Product;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Writes the counters of StockReservationEngine back to the products table in JDBC batches,
+// off the request path. Failed batches are marked dirty again and retried on the next run.
+// The rows are updated behind Hibernate's back, so their second-level cache entries are evicted.
+// The version is left alone: stock belongs to the engine, and bumping it on every flush would make
+// any edit of a product that keeps selling fail its version check.
+@Component
+public class StockWriteBehindFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehindFlusher.class);
+
+    private final StockReservationEngine stockReservationEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public StockWriteBehindFlusher(StockReservationEngine stockReservationEngine, JdbcTemplate jdbcTemplate,
+                                   EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                                   @Value("${ims.inventory.flush-batch-size:500}") int batchSize) {
+        this.stockReservationEngine = stockReservationEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ims.inventory.flush-interval-ms:200}")
+    public synchronized void flush() {
+        Map<Long, Integer> changes = stockReservationEngine.drainDirty();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(changes.entrySet());
+        boolean written = false;
+        try {
+            jdbcTemplate.batchUpdate("UPDATE products SET quantity = ? WHERE id = ?", rows, batchSize, (ps, row) -> {
+                ps.setInt(1, row.getValue());
+                ps.setLong(2, row.getKey());
+            });
+            written = true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} stock counters, retrying on the next flush", rows.size(), e);
+            stockReservationEngine.markDirty(changes.keySet());
+        } finally {
+            // A cached product would keep serving the old quantity
+            Cache cache = entityManagerFactory.getCache();
+            changes.keySet().forEach(productId -> cache.evict(Product.class, productId));
+        }
+        if (written) {
+            eventPublisher.publishEvent(new StockCountersFlushedEvent(Set.copyOf(changes.keySet())));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventorymanagement.ims.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Buffers the rows of one INSERT statement per transaction and writes them with JDBC batches just
+// before commit, so they commit or roll back with the change that produced them without a round
+// trip per row. Outside a transaction a row is inserted at once. Each instance is its own
+// transaction resource, so writers with different statements keep separate buffers.
+public final class TransactionalBatchInserter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+    private final int batchSize;
+
+    public TransactionalBatchInserter(JdbcTemplate jdbcTemplate, String insertSql, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSql = insertSql;
+        this.batchSize = batchSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void append(Object[] row) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            jdbcTemplate.update(insertSql, row);
+            return;
+        }
+
+        List<Object[]> buffer = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<Object[]> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    for (int from = 0; from < rows.size(); from += batchSize) {
+                        jdbcTemplate.batchUpdate(insertSql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionalBatchInserter.this);
+                }
+            });
+            buffer = rows;
+        }
+        buffer.add(row);
+    }
+}
@@ -0,0 +1,4 @@
+package com.inventorymanagement.ims.location;
+
+public record CreateStockLocationDto(String code, String name, int priority) {
+}
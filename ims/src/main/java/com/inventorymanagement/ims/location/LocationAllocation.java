@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.location;
+
+import java.util.List;
+
+// Where the stock of a reservation was taken from, one line per product and location
+public record LocationAllocation(List<Line> lines) {
+
+    public static final LocationAllocation NONE = new LocationAllocation(List.of());
+
+    public record Line(Long productId, Long locationId, int quantity) {
+    }
+}
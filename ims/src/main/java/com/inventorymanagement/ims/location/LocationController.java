@@ -0,0 +1,52 @@
+package com.inventorymanagement.ims.location;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private final LocationService locationService;
+
+    public LocationController(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StockLocationDto>> getLocations() {
+        return ResponseEntity.ok(locationService.getLocations());
+    }
+
+    @PostMapping
+    public ResponseEntity<StockLocationDto> createLocation(@RequestBody CreateStockLocationDto createDto) {
+        return new ResponseEntity<>(locationService.createLocation(createDto), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/stock/{productId}")
+    public ResponseEntity<ProductLocationStockDto> getProductStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(locationService.getProductStock(productId));
+    }
+
+    @PutMapping("/{locationId}/stock/{productId}")
+    public ResponseEntity<ProductLocationStockDto> setStock(@PathVariable Long locationId, @PathVariable Long productId,
+                                                            @RequestBody SetLocationStockDto setDto) {
+        return ResponseEntity.ok(locationService.setStock(locationId, productId, setDto.quantity()));
+    }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<ProductLocationStockDto> transfer(@RequestBody StockTransferDto transferDto) {
+        return ResponseEntity.ok(locationService.transfer(transferDto));
+    }
+}
@@ -0,0 +1,4 @@
+package com.inventorymanagement.ims.location;
+
+public record LocationQuantityDto(Long locationId, String code, int quantity) {
+}
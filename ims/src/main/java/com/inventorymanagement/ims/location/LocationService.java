@@ -0,0 +1,160 @@
+package com.inventorymanagement.ims.location;
+
+import com.inventorymanagement.ims.exception.ConflictException;
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductRepository;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class LocationService {
+
+    private final StockLocationRepository stockLocationRepository;
+    private final ProductRepository productRepository;
+    private final LocationStockLedger locationStockLedger;
+    private final StockReservationEngine stockReservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LocationService(StockLocationRepository stockLocationRepository, ProductRepository productRepository,
+                           LocationStockLedger locationStockLedger, StockReservationEngine stockReservationEngine,
+                           ApplicationEventPublisher eventPublisher) {
+        this.stockLocationRepository = stockLocationRepository;
+        this.productRepository = productRepository;
+        this.locationStockLedger = locationStockLedger;
+        this.stockReservationEngine = stockReservationEngine;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<StockLocationDto> getLocations() {
+        return locationStockLedger.locations().stream().map(StockLocationDto::of).toList();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public StockLocationDto createLocation(CreateStockLocationDto createDto) {
+        if (createDto.code() == null || createDto.code().isBlank()) {
+            throw new IllegalArgumentException("Location code is required");
+        }
+        String code = createDto.code().trim();
+        if (stockLocationRepository.existsByCode(code)) {
+            throw new ConflictException("A location with code " + code + " already exists");
+        }
+
+        StockLocation location = new StockLocation();
+        location.setCode(code);
+        location.setName(createDto.name() == null || createDto.name().isBlank() ? code : createDto.name());
+        location.setPriority(createDto.priority());
+        StockLocation saved = stockLocationRepository.save(location);
+        locationStockLedger.refreshLocations();
+        return StockLocationDto.of(saved);
+    }
+
+    // Not read-only: a product the engine has not seen is seeded from this read, which must not
+    // come from a replica that is behind
+    @Transactional
+    public ProductLocationStockDto getProductStock(Long productId) {
+        Product product = stockedProduct(productId);
+        return toDto(productId, locationStockLedger.breakdown(productId, available(product)));
+    }
+
+    // Sets the stock at one location, which moves the product's total by the same amount. The
+    // in-memory change is undone if the transaction carrying the stock movement rolls back.
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ProductLocationStockDto setStock(Long locationId, Long productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+        locationStockLedger.requireLocation(locationId);
+        Product product = stockedProduct(productId);
+
+        int delta = locationStockLedger.set(productId, locationId, quantity, available(product));
+        int after;
+        try {
+            after = stockReservationEngine.adjust(productId, delta, id -> product.getQuantity());
+        } catch (RuntimeException e) {
+            locationStockLedger.adjust(productId, locationId, -delta);
+            throw e;
+        }
+
+        if (delta != 0) {
+            undoOnRollback(productId, locationId, delta, product.getQuantity());
+            ProductSnapshot snapshot = ProductSnapshot.of(product);
+            eventPublisher.publishEvent(new ProductChangedEvent(snapshot.withQuantity(after - delta), snapshot.withQuantity(after)));
+        }
+        return toDto(productId, locationStockLedger.breakdown(productId, after));
+    }
+
+    // Moves stock between locations in memory only, the flusher writes both rows
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public ProductLocationStockDto transfer(StockTransferDto transferDto) {
+        if (transferDto.quantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (Objects.equals(transferDto.fromLocationId(), transferDto.toLocationId())) {
+            throw new IllegalArgumentException("Source and destination locations must differ");
+        }
+        locationStockLedger.requireLocation(transferDto.fromLocationId());
+        locationStockLedger.requireLocation(transferDto.toLocationId());
+        Product product = stockedProduct(transferDto.productId());
+
+        locationStockLedger.transfer(product.getId(), transferDto.fromLocationId(), transferDto.toLocationId(),
+                transferDto.quantity(), available(product));
+        return toDto(product.getId(), locationStockLedger.breakdown(product.getId(), available(product)));
+    }
+
+    private Product stockedProduct(Long productId) {
+        if (!locationStockLedger.isEnabled()) {
+            throw new ConflictException("Stock locations are not loaded yet");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        if (product.isBundle()) {
+            throw new IllegalArgumentException("Bundles hold no stock of their own: " + product.getName());
+        }
+        return product;
+    }
+
+    // Seeds the engine counter if needed, so the ledger and the counter start from the same value
+    private int available(Product product) {
+        return stockReservationEngine.track(product.getId(), id -> product.getQuantity());
+    }
+
+    private void undoOnRollback(Long productId, Long locationId, int delta, int initialStock) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    locationStockLedger.adjust(productId, locationId, -delta);
+                    stockReservationEngine.adjust(productId, -delta, id -> initialStock);
+                }
+            }
+        });
+    }
+
+    private ProductLocationStockDto toDto(Long productId, Map<Long, Integer> breakdown) {
+        Map<Long, String> codes = new HashMap<>();
+        locationStockLedger.locations().forEach(location -> codes.put(location.getId(), location.getCode()));
+        List<LocationQuantityDto> locations = new ArrayList<>(breakdown.size());
+        int total = 0;
+        for (Map.Entry<Long, Integer> entry : breakdown.entrySet()) {
+            locations.add(new LocationQuantityDto(entry.getKey(), codes.get(entry.getKey()), entry.getValue()));
+            total += entry.getValue();
+        }
+        return new ProductLocationStockDto(productId, total, locations);
+    }
+}
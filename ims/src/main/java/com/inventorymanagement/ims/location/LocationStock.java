@@ -0,0 +1,19 @@
+package com.inventorymanagement.ims.location;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Available stock of one product at one location. Written behind by LocationStockFlusher from
+// the in-memory ledger; the quantities of a product across locations add up to its stock.
+@Data
+@Entity
+@Table(name = "location_stock", indexes = {
+        @Index(name = "idx_location_stock_product", columnList = "product_id")
+})
+public class LocationStock {
+
+    @EmbeddedId
+    private LocationStockId id;
+
+    private int quantity;
+}
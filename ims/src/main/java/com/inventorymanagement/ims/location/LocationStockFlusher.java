@@ -0,0 +1,91 @@
+package com.inventorymanagement.ims.location;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Writes the stripes of LocationStockLedger to location_stock in JDBC batches, the same way
+// StockWriteBehindFlusher writes the aggregate counters. A stripe without a row yet is inserted
+// after its update touched nothing; the rows of deleted products are removed.
+@Component
+public class LocationStockFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationStockFlusher.class);
+
+    private final LocationStockLedger locationStockLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public LocationStockFlusher(LocationStockLedger locationStockLedger, JdbcTemplate jdbcTemplate,
+                                @Value("${ims.inventory.flush-batch-size:500}") int batchSize) {
+        this.locationStockLedger = locationStockLedger;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ims.locations.flush-interval-ms:500}")
+    public synchronized void flush() {
+        Set<Long> forgotten = locationStockLedger.drainForgotten();
+        Map<LocationStockId, Integer> changes = locationStockLedger.drainDirty();
+        if (forgotten.isEmpty() && changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!forgotten.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM location_stock WHERE product_id = ?", forgotten, batchSize,
+                        (ps, productId) -> ps.setLong(1, productId));
+            }
+            if (!changes.isEmpty()) {
+                writeStripes(changes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} location stock rows, retrying on the next flush", changes.size(), e);
+            locationStockLedger.markForgotten(forgotten);
+            locationStockLedger.markDirty(changes.keySet());
+        }
+    }
+
+    private void writeStripes(Map<LocationStockId, Integer> changes) {
+        List<Map.Entry<LocationStockId, Integer>> rows = new ArrayList<>(changes.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(
+                "UPDATE location_stock SET quantity = ? WHERE location_id = ? AND product_id = ?", rows, batchSize, (ps, row) -> {
+                    ps.setInt(1, row.getValue());
+                    ps.setLong(2, row.getKey().getLocationId());
+                    ps.setLong(3, row.getKey().getProductId());
+                });
+
+        List<Map.Entry<LocationStockId, Integer>> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(rows.get(index));
+                }
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO location_stock (location_id, product_id, quantity) VALUES (?, ?, ?)",
+                    missing, batchSize, (ps, row) -> {
+                        ps.setLong(1, row.getKey().getLocationId());
+                        ps.setLong(2, row.getKey().getProductId());
+                        ps.setInt(3, row.getValue());
+                    });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
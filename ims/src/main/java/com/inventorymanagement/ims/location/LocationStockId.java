@@ -0,0 +1,19 @@
+package com.inventorymanagement.ims.location;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStockId implements Serializable {
+
+    private Long locationId;
+
+    private Long productId;
+}
@@ -0,0 +1,337 @@
+package com.inventorymanagement.ims.location;
+
+import com.inventorymanagement.ims.exception.ConflictException;
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockCounterListener;
+import com.inventorymanagement.ims.inventory.StockReservation;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Splits the available stock of each product in StockReservationEngine across locations. The
+// engine counter stays the single aggregate that orders reserve against and listings read; the
+// ledger keeps one stripe per location whose sum is that counter, so nothing ever sums rows.
+// Every product's stripes are guarded by their own monitor and written behind by
+// LocationStockFlusher. Until load() has run there are no locations and allocation is a no-op.
+@Component
+public class LocationStockLedger implements StockCounterListener {
+
+    private final StockLocationRepository stockLocationRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final StockReservationEngine stockReservationEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final String defaultLocationCode;
+
+    // Quantity per location id of each product; the inner maps are only touched under their own lock
+    private final Map<Long, Map<Long, Integer>> byProduct = new ConcurrentHashMap<>();
+    private final Set<LocationStockId> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> forgotten = ConcurrentHashMap.newKeySet();
+    // In allocation order, the first one takes stock changes that name no location
+    private volatile List<StockLocation> locations = List.of();
+
+    public LocationStockLedger(StockLocationRepository stockLocationRepository,
+                               LocationStockRepository locationStockRepository,
+                               StockReservationEngine stockReservationEngine,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ims.locations.default-code:MAIN}") String defaultLocationCode) {
+        this.stockLocationRepository = stockLocationRepository;
+        this.locationStockRepository = locationStockRepository;
+        this.stockReservationEngine = stockReservationEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultLocationCode = defaultLocationCode;
+        stockReservationEngine.addListener(this);
+    }
+
+    // Creates the default location on first start, so all existing stock lives there, and loads
+    // the stripes. Counters the engine seeded before this ran are reconciled on the first location.
+    // Read in a read-write transaction, so the rows come from the primary rather than a replica
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        byProduct.clear();
+        List<StockLocation> loaded = transactionTemplate.execute(status -> {
+            if (stockLocationRepository.count() == 0) {
+                StockLocation location = new StockLocation();
+                location.setCode(defaultLocationCode);
+                location.setName(defaultLocationCode);
+                stockLocationRepository.save(location);
+            }
+            for (LocationStockRow row : locationStockRepository.findAllRows()) {
+                byProduct.computeIfAbsent(row.productId(), id -> new HashMap<>()).put(row.locationId(), row.quantity());
+            }
+            return stockLocationRepository.findAllByOrderByPriorityAscIdAsc();
+        });
+        locations = List.copyOf(loaded);
+
+        byProduct.forEach((productId, stock) -> stockReservationEngine.available(productId).ifPresent(available -> {
+            synchronized (stock) {
+                applyDelta(productId, stock, available - total(stock));
+            }
+        }));
+    }
+
+    public synchronized void refreshLocations() {
+        locations = List.copyOf(stockLocationRepository.findAllByOrderByPriorityAscIdAsc());
+    }
+
+    public List<StockLocation> locations() {
+        return locations;
+    }
+
+    public boolean isEnabled() {
+        return !locations.isEmpty();
+    }
+
+    public void requireLocation(Long locationId) {
+        if (locationId != null && locations.stream().noneMatch(location -> location.getId().equals(locationId))) {
+            throw new ResourceNotFoundException("Stock location not found with id: " + locationId);
+        }
+    }
+
+    @Override
+    public void counterSeeded(Long productId, int initialStock) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<Long, Integer> stock = byProduct.computeIfAbsent(productId, id -> new HashMap<>());
+        synchronized (stock) {
+            applyDelta(productId, stock, initialStock - total(stock));
+        }
+    }
+
+    @Override
+    public void counterOverwritten(Long productId, int delta) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<Long, Integer> stock = byProduct.get(productId);
+        if (stock == null) {
+            // Seeded before the ledger was loaded and without rows, the counter already includes delta
+            stripes(productId, stockReservationEngine.available(productId).orElse(0));
+            return;
+        }
+        synchronized (stock) {
+            applyDelta(productId, stock, delta);
+        }
+    }
+
+    @Override
+    public void counterForgotten(Long productId) {
+        if (byProduct.remove(productId) != null) {
+            forgotten.add(productId);
+        }
+    }
+
+    // Takes the stock of a reservation from the preferred location first and then in location
+    // order. The engine has already made sure the total is there; a stripe only goes negative if
+    // the ledger had drifted from its counter, and then on the location tried first.
+    public LocationAllocation allocate(StockReservation reservation, Long preferredLocationId) {
+        List<StockLocation> order = locations;
+        if (order.isEmpty()) {
+            return LocationAllocation.NONE;
+        }
+        List<Long> locationIds = new ArrayList<>(order.size() + 1);
+        if (preferredLocationId != null) {
+            locationIds.add(preferredLocationId);
+        }
+        order.forEach(location -> {
+            if (!location.getId().equals(preferredLocationId)) {
+                locationIds.add(location.getId());
+            }
+        });
+
+        List<LocationAllocation.Line> lines = new ArrayList<>();
+        reservation.quantities().forEach((productId, quantity) -> {
+            Map<Long, Integer> stock = stripes(productId, reservation.remaining().get(productId) + quantity);
+            synchronized (stock) {
+                int left = quantity;
+                for (Long locationId : locationIds) {
+                    int taken = Math.min(stock.getOrDefault(locationId, 0), left);
+                    if (taken > 0) {
+                        add(productId, stock, locationId, -taken);
+                        lines.add(new LocationAllocation.Line(productId, locationId, taken));
+                        left -= taken;
+                    }
+                    if (left == 0) {
+                        break;
+                    }
+                }
+                if (left > 0) {
+                    add(productId, stock, locationIds.get(0), -left);
+                    lines.add(new LocationAllocation.Line(productId, locationIds.get(0), left));
+                }
+            }
+        });
+        return new LocationAllocation(lines);
+    }
+
+    public void release(LocationAllocation allocation) {
+        for (LocationAllocation.Line line : allocation.lines()) {
+            Map<Long, Integer> stock = byProduct.get(line.productId());
+            if (stock != null) {
+                synchronized (stock) {
+                    add(line.productId(), stock, line.locationId(), line.quantity());
+                }
+            }
+        }
+    }
+
+    // Puts the allocation back if the surrounding transaction rolls back, like the reservation itself
+    public void releaseOnRollback(LocationAllocation allocation) {
+        if (allocation.lines().isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(allocation);
+                }
+            }
+        });
+    }
+
+    // Quantity per location in location order, every location listed. available seeds a product
+    // the ledger has not seen onto the first location.
+    public Map<Long, Integer> breakdown(Long productId, int available) {
+        Map<Long, Integer> stock = stripes(productId, available);
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        synchronized (stock) {
+            locations.forEach(location -> result.put(location.getId(), stock.getOrDefault(location.getId(), 0)));
+        }
+        return result;
+    }
+
+    // Sets one location and returns the change, which the caller applies to the engine counter
+    public int set(Long productId, Long locationId, int quantity, int available) {
+        Map<Long, Integer> stock = stripes(productId, available);
+        synchronized (stock) {
+            int delta = quantity - stock.getOrDefault(locationId, 0);
+            add(productId, stock, locationId, delta);
+            return delta;
+        }
+    }
+
+    public void adjust(Long productId, Long locationId, int delta) {
+        Map<Long, Integer> stock = byProduct.get(productId);
+        if (stock != null) {
+            synchronized (stock) {
+                add(productId, stock, locationId, delta);
+            }
+        }
+    }
+
+    // Moves stock between locations, the product's total does not change
+    public void transfer(Long productId, Long fromLocationId, Long toLocationId, int quantity, int available) {
+        Map<Long, Integer> stock = stripes(productId, available);
+        synchronized (stock) {
+            int onHand = stock.getOrDefault(fromLocationId, 0);
+            if (onHand < quantity) {
+                throw new ConflictException("Not enough stock of product id: " + productId + " at location id: "
+                        + fromLocationId + " (requested " + quantity + ", available " + onHand + ")");
+            }
+            add(productId, stock, fromLocationId, -quantity);
+            add(productId, stock, toLocationId, quantity);
+        }
+    }
+
+    // Snapshot of every stripe changed since the last drain, cleared before reading as in the engine
+    public Map<LocationStockId, Integer> drainDirty() {
+        Map<LocationStockId, Integer> snapshot = new HashMap<>();
+        for (Iterator<LocationStockId> it = dirty.iterator(); it.hasNext(); ) {
+            LocationStockId id = it.next();
+            it.remove();
+            Map<Long, Integer> stock = byProduct.get(id.getProductId());
+            if (stock != null) {
+                synchronized (stock) {
+                    snapshot.put(id, stock.getOrDefault(id.getLocationId(), 0));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public Set<Long> drainForgotten() {
+        Set<Long> snapshot = new HashSet<>();
+        for (Iterator<Long> it = forgotten.iterator(); it.hasNext(); ) {
+            snapshot.add(it.next());
+            it.remove();
+        }
+        return snapshot;
+    }
+
+    public void markDirty(Iterable<LocationStockId> ids) {
+        ids.forEach(dirty::add);
+    }
+
+    public void markForgotten(Iterable<Long> productIds) {
+        productIds.forEach(forgotten::add);
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    // The stripes of a product, created with all of available on the first location if missing
+    private Map<Long, Integer> stripes(Long productId, int available) {
+        return byProduct.computeIfAbsent(productId, id -> {
+            Map<Long, Integer> stock = new HashMap<>();
+            List<StockLocation> current = locations;
+            if (!current.isEmpty() && available != 0) {
+                Long locationId = current.get(0).getId();
+                stock.put(locationId, available);
+                dirty.add(new LocationStockId(locationId, id));
+            }
+            return stock;
+        });
+    }
+
+    // Increases go to the first location; decreases come off it first and then the others in order
+    private void applyDelta(Long productId, Map<Long, Integer> stock, int delta) {
+        List<StockLocation> order = locations;
+        Long first = order.get(0).getId();
+        if (delta >= 0) {
+            add(productId, stock, first, delta);
+            return;
+        }
+        int left = -delta;
+        for (StockLocation location : order) {
+            int taken = Math.min(stock.getOrDefault(location.getId(), 0), left);
+            if (taken > 0) {
+                add(productId, stock, location.getId(), -taken);
+                left -= taken;
+            }
+        }
+        add(productId, stock, first, -left);
+    }
+
+    private void add(Long productId, Map<Long, Integer> stock, Long locationId, int delta) {
+        if (delta != 0) {
+            stock.merge(locationId, delta, Integer::sum);
+            dirty.add(new LocationStockId(locationId, productId));
+        }
+    }
+
+    private static int total(Map<Long, Integer> stock) {
+        int total = 0;
+        for (int quantity : stock.values()) {
+            total += quantity;
+        }
+        return total;
+    }
+}
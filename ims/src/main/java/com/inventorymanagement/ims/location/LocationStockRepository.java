@@ -0,0 +1,16 @@
+package com.inventorymanagement.ims.location;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocationStockRepository extends JpaRepository<LocationStock, LocationStockId> {
+
+    // Scalar rows, the ledger keeps its own copy and never needs managed entities
+    @Query("SELECT new com.inventorymanagement.ims.location.LocationStockRow(s.id.locationId, s.id.productId, s.quantity) " +
+            "FROM LocationStock s")
+    List<LocationStockRow> findAllRows();
+}
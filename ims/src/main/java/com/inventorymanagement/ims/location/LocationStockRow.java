@@ -0,0 +1,4 @@
+package com.inventorymanagement.ims.location;
+
+public record LocationStockRow(Long locationId, Long productId, int quantity) {
+}
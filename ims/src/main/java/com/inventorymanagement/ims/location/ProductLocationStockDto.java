@@ -0,0 +1,6 @@
+package com.inventorymanagement.ims.location;
+
+import java.util.List;
+
+public record ProductLocationStockDto(Long productId, int available, List<LocationQuantityDto> locations) {
+}
@@ -0,0 +1,4 @@
+package com.inventorymanagement.ims.location;
+
+public record SetLocationStockDto(int quantity) {
+}
@@ -0,0 +1,23 @@
+package com.inventorymanagement.ims.location;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// A warehouse or store that holds stock. Orders are allocated from locations in ascending
+// priority, after the location the order asked for.
+@Data
+@Entity
+@Table(name = "stock_locations")
+public class StockLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String code;
+
+    private String name;
+
+    private int priority;
+}
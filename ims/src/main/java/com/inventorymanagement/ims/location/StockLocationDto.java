@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.location;
+
+public record StockLocationDto(Long id, String code, String name, int priority) {
+
+    static StockLocationDto of(StockLocation location) {
+        return new StockLocationDto(location.getId(), location.getCode(), location.getName(), location.getPriority());
+    }
+}
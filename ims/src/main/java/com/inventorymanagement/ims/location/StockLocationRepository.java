@@ -0,0 +1,14 @@
+package com.inventorymanagement.ims.location;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockLocationRepository extends JpaRepository<StockLocation, Long> {
+
+    List<StockLocation> findAllByOrderByPriorityAscIdAsc();
+
+    boolean existsByCode(String code);
+}
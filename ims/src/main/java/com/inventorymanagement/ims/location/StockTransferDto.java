@@ -0,0 +1,4 @@
+package com.inventorymanagement.ims.location;
+
+public record StockTransferDto(Long productId, Long fromLocationId, Long toLocationId, int quantity) {
+}
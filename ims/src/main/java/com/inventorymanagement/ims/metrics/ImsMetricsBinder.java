@@ -0,0 +1,69 @@
+package com.inventorymanagement.ims.metrics;
+
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.product.LowStockIndex;
+import com.inventorymanagement.ims.search.ProductSearchIndex;
+import com.inventorymanagement.ims.security.CachingAuthenticationProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Gauges and counters over the in-memory state the services keep, read on each scrape
+@Component
+public class ImsMetricsBinder implements MeterBinder {
+
+    private final StockReservationEngine stockReservationEngine;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final CachingAuthenticationProvider cachingAuthenticationProvider;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex productSearchIndex;
+
+    public ImsMetricsBinder(StockReservationEngine stockReservationEngine,
+                            OptimisticRetryExecutor optimisticRetryExecutor,
+                            CachingAuthenticationProvider cachingAuthenticationProvider,
+                            LowStockIndex lowStockIndex, ProductSearchIndex productSearchIndex) {
+        this.stockReservationEngine = stockReservationEngine;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.cachingAuthenticationProvider = cachingAuthenticationProvider;
+        this.lowStockIndex = lowStockIndex;
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ims.stock.counters", stockReservationEngine, StockReservationEngine::trackedCount)
+                .description("Products with an in-memory stock counter")
+                .register(registry);
+        Gauge.builder("ims.stock.dirty", stockReservationEngine, StockReservationEngine::dirtyCount)
+                .description("Stock counters waiting for the write-behind flush")
+                .register(registry);
+
+        FunctionCounter.builder("ims.optimistic.conflicts", optimisticRetryExecutor,
+                        executor -> executor.getStats().conflicts())
+                .description("Optimistic locking conflicts")
+                .register(registry);
+        FunctionCounter.builder("ims.optimistic.exhausted", optimisticRetryExecutor,
+                        executor -> executor.getStats().exhausted())
+                .description("Operations that still conflicted after the last retry")
+                .register(registry);
+
+        FunctionCounter.builder("ims.auth.cache.requests", cachingAuthenticationProvider,
+                        provider -> provider.getStats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ims.auth.cache.requests", cachingAuthenticationProvider,
+                        provider -> provider.getStats().misses())
+                .tag("result", "miss")
+                .register(registry);
+
+        Gauge.builder("ims.low-stock.products", lowStockIndex, LowStockIndex::size)
+                .description("Products below their reorder threshold")
+                .register(registry);
+        Gauge.builder("ims.search.documents", productSearchIndex, ProductSearchIndex::size)
+                .description("Products in the search index")
+                .register(registry);
+    }
+}
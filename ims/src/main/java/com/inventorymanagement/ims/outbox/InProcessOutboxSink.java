@@ -0,0 +1,29 @@
+package com.inventorymanagement.ims.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Hands each relayed batch to @EventListener methods for OutboxBatchPublishedEvent
+@Component
+@ConditionalOnProperty(name = "ims.outbox.sinks.in-process.enabled", havingValue = "true", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        eventPublisher.publishEvent(new OutboxBatchPublishedEvent(events));
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.outbox;
+
+import java.util.List;
+
+// Delivered by InProcessOutboxSink to listeners inside the application
+public record OutboxBatchPublishedEvent(
+        List<OutboxEventDto> events
+) {
+}
@@ -0,0 +1,26 @@
+package com.inventorymanagement.ims.outbox;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/events")
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    public OutboxController(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    @GetMapping
+    public ResponseEntity<OutboxFeedDto> getEvents(@RequestParam(defaultValue = "0") long after,
+                                                   @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(outboxService.getEvents(after, limit));
+    }
+}
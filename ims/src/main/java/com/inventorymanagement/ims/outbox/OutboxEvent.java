@@ -0,0 +1,42 @@
+package com.inventorymanagement.ims.outbox;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// A change recorded in the same transaction as the mutation that caused it. The relay gives each
+// record a gap free sequence number, which is what consumers of the feed resume from, and marks
+// it published once every sink has accepted it.
+@Data
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_sequence", columnList = "sequence_number", unique = true),
+        @Index(name = "idx_outbox_published_at", columnList = "published_at")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sequenceNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant publishedAt;
+}
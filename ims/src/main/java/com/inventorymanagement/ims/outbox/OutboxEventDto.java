@@ -0,0 +1,25 @@
+package com.inventorymanagement.ims.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public record OutboxEventDto(
+        long sequence,
+        OutboxEventType type,
+        String aggregateType,
+        Long aggregateId,
+        // Already JSON, written out as is
+        @JsonRawValue String payload,
+        Instant createdAt
+) {
+    static OutboxEventDto from(OutboxEvent event) {
+        return new OutboxEventDto(
+                event.getSequenceNumber(),
+                event.getEventType(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getPayload(),
+                event.getCreatedAt());
+    }
+}
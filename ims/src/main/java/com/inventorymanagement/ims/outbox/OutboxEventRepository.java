@@ -0,0 +1,29 @@
+package com.inventorymanagement.ims.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findBySequenceNumberIsNullOrderByIdAsc(Limit limit);
+
+    List<OutboxEvent> findBySequenceNumberIsNotNullAndPublishedAtIsNullOrderBySequenceNumberAsc(Limit limit);
+
+    List<OutboxEvent> findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(Long sequenceNumber, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.sequenceNumber), 0) FROM OutboxEvent e")
+    long findMaxSequence();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+}
@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.outbox;
+
+public enum OutboxEventType {
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED,
+    STOCK_CHANGED,
+    PRICE_CHANGED,
+    BUNDLE_CHANGED,
+    ORDER_STATUS_CHANGED,
+    PROMOTION_CHANGED
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.outbox;
+
+import java.util.List;
+
+// nextAfter is the sequence to pass as "after" on the next call
+public record OutboxFeedDto(
+        List<OutboxEventDto> events,
+        long nextAfter
+) {
+}
@@ -0,0 +1,97 @@
+package com.inventorymanagement.ims.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+// Moves outbox records to the sinks in batches. Records first get a sequence number in the order
+// the relay sees them commit, which keeps the feed free of gaps even though identity values can
+// commit out of order. They are then handed to every sink and marked published. A batch that a
+// sink rejects keeps its sequence numbers and is retried on the next run.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // Last sequence handed out, read from the table on first use. One relay per database.
+    private long lastSequence = -1;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${ims.outbox.relay-batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ims.outbox.relay-interval-ms:500}")
+    public synchronized void relay() {
+        try {
+            int assigned;
+            int delivered;
+            do {
+                assigned = assignSequences();
+                delivered = deliver();
+            } while (assigned == batchSize || delivered == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, retrying on the next run", e);
+        }
+    }
+
+    private int assignSequences() {
+        try {
+            Integer assigned = transactionTemplate.execute(status -> {
+                if (lastSequence < 0) {
+                    lastSequence = outboxEventRepository.findMaxSequence();
+                }
+                List<OutboxEvent> events = outboxEventRepository.findBySequenceNumberIsNullOrderByIdAsc(Limit.of(batchSize));
+                for (OutboxEvent event : events) {
+                    event.setSequenceNumber(++lastSequence);
+                }
+                return events.size();
+            });
+            return assigned == null ? 0 : assigned;
+        } catch (RuntimeException e) {
+            // The numbers handed out in the failed transaction were never stored
+            lastSequence = -1;
+            throw e;
+        }
+    }
+
+    private int deliver() {
+        List<OutboxEvent> pending = outboxEventRepository
+                .findBySequenceNumberIsNotNullAndPublishedAtIsNullOrderBySequenceNumberAsc(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEventDto> events = pending.stream().map(OutboxEventDto::from).toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                log.warn("Outbox sink {} rejected {} records starting at sequence {}",
+                        sink.name(), events.size(), events.get(0).sequence(), e);
+                return 0;
+            }
+        }
+
+        List<Long> ids = pending.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markPublished(ids, Instant.now()));
+        return pending.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventorymanagement.ims.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class OutboxService {
+
+    private static final int MAX_FEED_LIMIT = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    // Records with a sequence number above "after", oldest first. Passing back nextAfter resumes
+    // the feed exactly where the previous call stopped.
+    @Transactional(readOnly = true)
+    public OutboxFeedDto getEvents(long after, int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("after must not be negative");
+        }
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_FEED_LIMIT);
+        }
+
+        List<OutboxEventDto> events = outboxEventRepository
+                .findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(after, Limit.of(limit))
+                .stream()
+                .map(OutboxEventDto::from)
+                .toList();
+        long nextAfter = events.isEmpty() ? after : events.get(events.size() - 1).sequence();
+        return new OutboxFeedDto(events, nextAfter);
+    }
+}
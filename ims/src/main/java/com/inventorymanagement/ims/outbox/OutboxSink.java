@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.outbox;
+
+import java.util.List;
+
+// Destination for relayed outbox records. A batch is retried until every sink accepts it, so
+// sinks must tolerate seeing a batch again and can deduplicate on the sequence number.
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxEventDto> events) throws Exception;
+}
@@ -0,0 +1,84 @@
+package com.inventorymanagement.ims.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.ims.jdbc.TransactionalBatchInserter;
+import com.inventorymanagement.ims.product.BundleCompositionChangedEvent;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import com.inventorymanagement.ims.promotion.PromotionsChangedEvent;
+import com.inventorymanagement.ims.purchaseorder.OrderStatusChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Turns domain events into outbox rows inside the transaction that published them, so a change
+// and its outbox record commit or roll back together. Rows are buffered per transaction and
+// written in JDBC batches just before commit, which keeps large imports from paying a round
+// trip per record.
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(event_type, aggregate_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final TransactionalBatchInserter inserter;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.inserter = new TransactionalBatchInserter(jdbcTemplate, INSERT_SQL, INSERT_BATCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        OutboxEventType type;
+        if (before == null) {
+            type = OutboxEventType.PRODUCT_CREATED;
+        } else if (after == null) {
+            type = OutboxEventType.PRODUCT_DELETED;
+        } else if (before.equals(after)) {
+            return;
+        } else if (before.withQuantity(after.quantity()).equals(after)) {
+            type = OutboxEventType.STOCK_CHANGED;
+        } else if (before.withPrice(after.price()).equals(after)) {
+            type = OutboxEventType.PRICE_CHANGED;
+        } else {
+            type = OutboxEventType.PRODUCT_UPDATED;
+        }
+        append(type, "product", after != null ? after.id() : before.id(), event);
+    }
+
+    @EventListener
+    public void onBundleCompositionChanged(BundleCompositionChangedEvent event) {
+        append(OutboxEventType.BUNDLE_CHANGED, "product", event.bundleId(), event);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        append(OutboxEventType.ORDER_STATUS_CHANGED, "purchase_order", event.orderId(), event);
+    }
+
+    @EventListener
+    public void onPromotionsChanged(PromotionsChangedEvent event) {
+        append(OutboxEventType.PROMOTION_CHANGED, "promotion", event.promotionId(), event);
+    }
+
+    private void append(OutboxEventType type, String aggregateType, Long aggregateId, Object payload) {
+        Object[] row;
+        try {
+            row = new Object[]{type.name(), aggregateType, aggregateId, objectMapper.writeValueAsString(payload),
+                    Timestamp.from(Instant.now())};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload for " + type, e);
+        }
+
+        inserter.append(row);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.cache.CacheRegions;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+// One line of a bundle's bill of materials: how many units of a component go into one unit of
+// the bundle. Mapped onto the existing product_bundles join table, rows created before the
+// quantity column existed count as one unit.
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "product_bundles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BUNDLE_COMPONENTS)
+public class BundleComponent {
+
+    @EmbeddedId
+    private BundleComponentId id = new BundleComponentId();
+
+    @MapsId("bundleId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bundle_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Product bundle;
+
+    @MapsId("componentId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Product component;
+
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int quantity = 1;
+
+    public BundleComponent(Product bundle, Product component, int quantity) {
+        this.bundle = bundle;
+        this.component = component;
+        this.quantity = quantity;
+    }
+}
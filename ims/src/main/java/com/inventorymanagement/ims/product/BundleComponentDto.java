@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.product;
+
+public record BundleComponentDto(
+        Long productId,
+        int quantity
+) {
+}
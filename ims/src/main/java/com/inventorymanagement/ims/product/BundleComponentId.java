@@ -0,0 +1,19 @@
+package com.inventorymanagement.ims.product;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class BundleComponentId implements Serializable {
+
+    private Long bundleId;
+
+    private Long componentId;
+}
@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.product;
+
+public record BundleComponentRow(
+        Long bundleId,
+        Long componentId,
+        String componentName,
+        int quantity
+) {
+}
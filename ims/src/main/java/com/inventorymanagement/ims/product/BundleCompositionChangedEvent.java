@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.product;
+
+import java.util.Map;
+
+// Published when the components of a bundle are replaced, with the units of each component
+public record BundleCompositionChangedEvent(
+        Long bundleId,
+        Map<Long, Integer> components
+) {
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.product;
+
+// A bundle to component edge with the component's stored stock, used to seed BundleGraph
+public record BundleEdge(
+        Long bundleId,
+        Long componentId,
+        int quantity,
+        int componentStock
+) {
+}
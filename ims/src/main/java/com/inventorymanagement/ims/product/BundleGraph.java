@@ -0,0 +1,251 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of the bundle compositions with reverse edges from each component to the bundles
+// that contain it. Nested bundles are multiplied out into the stocked products they consume, and
+// the sellable quantity of every bundle, the minimum over those products of stock divided by
+// units, is kept current: a stock change only recomputes the bundles above that product.
+// Seeded with one query and maintained from events; reads never lock.
+@Component
+public class BundleGraph {
+
+    private final ProductRepository productRepository;
+    private final StockReservationEngine stockReservationEngine;
+    // Read-write, so the reads below go to the primary and never see a replica's older composition
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Map<Long, Integer>> componentsByBundle = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bundlesByComponent = new ConcurrentHashMap<>();
+    // Available stock of every product used as a component
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+    // Stocked products and units per bundle with nested bundles expanded, computed on demand
+    private final Map<Long, Map<Long, Integer>> expanded = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> available = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public BundleGraph(ProductRepository productRepository, StockReservationEngine stockReservationEngine,
+                       PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.stockReservationEngine = stockReservationEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        componentsByBundle.clear();
+        bundlesByComponent.clear();
+        stock.clear();
+        expanded.clear();
+        available.clear();
+
+        List<BundleEdge> edges = transactionTemplate.execute(status -> productRepository.findAllBundleEdges());
+        Map<Long, Map<Long, Integer>> components = new HashMap<>();
+        for (BundleEdge edge : edges) {
+            components.computeIfAbsent(edge.bundleId(), id -> new HashMap<>()).put(edge.componentId(), edge.quantity());
+            bundlesByComponent.computeIfAbsent(edge.componentId(), id -> ConcurrentHashMap.newKeySet()).add(edge.bundleId());
+            stock.put(edge.componentId(),
+                    stockReservationEngine.available(edge.componentId()).orElse(edge.componentStock()));
+        }
+        components.forEach((bundleId, units) -> componentsByBundle.put(bundleId, Map.copyOf(units)));
+        componentsByBundle.keySet().forEach(this::recompute);
+        loaded = true;
+    }
+
+    public boolean isBundle(Long productId) {
+        ensureLoaded();
+        return componentsByBundle.containsKey(productId);
+    }
+
+    // The stocked products one unit of the bundle consumes, empty for a product without components
+    public Map<Long, Integer> expand(Long bundleId) {
+        ensureLoaded();
+        Map<Long, Integer> cached = expanded.get(bundleId);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            return expand(bundleId, new HashSet<>());
+        }
+    }
+
+    // The given products plus every stocked product consumed by the bundles among them
+    public Set<Long> withStockedComponents(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        for (Long productId : productIds) {
+            ids.addAll(expand(productId).keySet());
+        }
+        return ids;
+    }
+
+    public OptionalInt availableQuantity(Long bundleId) {
+        ensureLoaded();
+        Integer quantity = available.get(bundleId);
+        return quantity == null ? OptionalInt.empty() : OptionalInt.of(quantity);
+    }
+
+    // Whether adding the components would make the bundle contain itself, directly or through nesting
+    public synchronized boolean wouldCreateCycle(Long bundleId, Collection<Long> componentIds) {
+        ensureLoaded();
+        Set<Long> ancestors = withAncestors(bundleId);
+        return componentIds.stream().anyMatch(ancestors::contains);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCompositionChanged(BundleCompositionChangedEvent event) {
+        if (!loaded) {
+            // The initial load reads the committed composition
+            return;
+        }
+        Long bundleId = event.bundleId();
+        Map<Long, Integer> previous = componentsByBundle.remove(bundleId);
+        if (previous != null) {
+            previous.keySet().forEach(componentId -> removeEdge(bundleId, componentId));
+        }
+        if (!event.components().isEmpty()) {
+            componentsByBundle.put(bundleId, Map.copyOf(event.components()));
+            event.components().keySet().forEach(componentId ->
+                    bundlesByComponent.computeIfAbsent(componentId, id -> ConcurrentHashMap.newKeySet()).add(bundleId));
+        }
+
+        Set<Long> unknownStock = new HashSet<>(event.components().keySet());
+        unknownStock.removeAll(stock.keySet());
+        if (!unknownStock.isEmpty()) {
+            for (Product product : transactionTemplate.execute(status -> productRepository.findAllById(unknownStock))) {
+                stock.put(product.getId(), stockReservationEngine.available(product.getId()).orElse(product.getQuantity()));
+            }
+        }
+
+        Set<Long> affected = withAncestors(bundleId);
+        affected.forEach(expanded::remove);
+        affected.forEach(this::recompute);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot after = event.after();
+        Long productId = after != null ? after.id() : event.before().id();
+        // Most changes are to products no bundle contains, those are skipped without locking
+        if (!loaded || (!bundlesByComponent.containsKey(productId) && !componentsByBundle.containsKey(productId))) {
+            return;
+        }
+
+        synchronized (this) {
+            if (after == null) {
+                Set<Long> affected = withAncestors(productId);
+                stock.remove(productId);
+                Map<Long, Integer> components = componentsByBundle.remove(productId);
+                if (components != null) {
+                    components.keySet().forEach(componentId -> removeEdge(productId, componentId));
+                }
+                affected.forEach(expanded::remove);
+                affected.forEach(this::recompute);
+                return;
+            }
+
+            // Events of concurrent orders can arrive out of commit order, the engine counter is
+            // always the latest available stock
+            int quantity = stockReservationEngine.available(productId).orElse(after.quantity());
+            Integer previous = stock.put(productId, quantity);
+            if (previous == null || previous != quantity) {
+                withAncestors(productId).forEach(this::recompute);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private Map<Long, Integer> expand(Long bundleId, Set<Long> path) {
+        Map<Long, Integer> cached = expanded.get(bundleId);
+        if (cached != null) {
+            return cached;
+        }
+        Map<Long, Integer> components = componentsByBundle.get(bundleId);
+        // A cycle can only come from concurrent edits slipping past the check, the back edge is ignored
+        if (components == null || !path.add(bundleId)) {
+            return Map.of();
+        }
+
+        Map<Long, Long> units = new HashMap<>();
+        components.forEach((componentId, quantity) -> {
+            if (componentsByBundle.containsKey(componentId)) {
+                expand(componentId, path).forEach((stockedId, nested) ->
+                        units.merge(stockedId, (long) quantity * nested, Long::sum));
+            } else {
+                units.merge(componentId, (long) quantity, Long::sum);
+            }
+        });
+        path.remove(bundleId);
+
+        Map<Long, Integer> capped = new HashMap<>();
+        units.forEach((stockedId, quantity) -> capped.put(stockedId, (int) Math.min(quantity, Integer.MAX_VALUE)));
+        Map<Long, Integer> result = Map.copyOf(capped);
+        expanded.put(bundleId, result);
+        return result;
+    }
+
+    private void recompute(Long bundleId) {
+        Map<Long, Integer> units = expand(bundleId, new HashSet<>());
+        if (units.isEmpty()) {
+            available.remove(bundleId);
+            return;
+        }
+        int sellable = Integer.MAX_VALUE;
+        for (Map.Entry<Long, Integer> unit : units.entrySet()) {
+            int onHand = Math.max(0, stock.getOrDefault(unit.getKey(), 0));
+            sellable = Math.min(sellable, onHand / unit.getValue());
+        }
+        available.put(bundleId, sellable);
+    }
+
+    // The product and every bundle that contains it, directly or through nesting
+    private Set<Long> withAncestors(Long productId) {
+        Set<Long> found = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(productId);
+        while (!pending.isEmpty()) {
+            Long current = pending.poll();
+            if (found.add(current)) {
+                pending.addAll(bundlesByComponent.getOrDefault(current, Set.of()));
+            }
+        }
+        return found;
+    }
+
+    private void removeEdge(Long bundleId, Long componentId) {
+        Set<Long> bundles = bundlesByComponent.get(componentId);
+        if (bundles != null) {
+            bundles.remove(bundleId);
+            if (bundles.isEmpty()) {
+                bundlesByComponent.remove(componentId);
+                stock.remove(componentId);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.inventorymanagement.ims.product;
 
 public record BundledProductDto(
         Long id,
-        String name
+        String name,
+        int quantity
 ) {
-}
\ No newline at end of file
+}
@@ -4,6 +4,9 @@ import java.util.List;
 
 public record CreateBundleDto(
         Long bundleProductId,
-        List<Long> componentProductIds
+        // One unit per occurrence, so listing an id twice puts two units in the bundle
+        List<Long> componentProductIds,
+        // Components with explicit quantities, used instead of componentProductIds when present
+        List<BundleComponentDto> components
 ) {
-}
\ No newline at end of file
+}
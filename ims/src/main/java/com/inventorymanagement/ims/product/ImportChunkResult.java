@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.product;
+
+public record ImportChunkResult(
+        int chunkNumber,
+        int rows,
+        int inserted,
+        int updated,
+        int rejected
+) {
+}
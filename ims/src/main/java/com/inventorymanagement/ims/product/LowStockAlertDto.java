@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.product;
+
+// Pushed to low stock subscribers when a product crosses its reorder threshold
+public record LowStockAlertDto(
+        LowStockTransition transition,
+        LowStockProductDto product
+) {
+}
@@ -0,0 +1,111 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Products currently below their reorder threshold, lowest stock first. Seeded with one query at
+// startup and then kept current from ProductChangedEvent, so reading the alerts never touches the
+// database. Crossings in either direction are pushed to subscribers through LowStockNotifier.
+@Component
+public class LowStockIndex {
+
+    private static final Comparator<LowStockProductDto> LOWEST_STOCK_FIRST =
+            Comparator.comparingInt(LowStockProductDto::quantity).thenComparing(LowStockProductDto::id);
+
+    private final ProductRepository productRepository;
+    private final StockReservationEngine stockReservationEngine;
+    private final LowStockNotifier lowStockNotifier;
+    private final TransactionTemplate transactionTemplate;
+
+    private final NavigableSet<LowStockProductDto> lowStock = new ConcurrentSkipListSet<>(LOWEST_STOCK_FIRST);
+    private final Map<Long, LowStockProductDto> lowStockById = new ConcurrentHashMap<>();
+
+    public LowStockIndex(ProductRepository productRepository, StockReservationEngine stockReservationEngine,
+                         LowStockNotifier lowStockNotifier, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.stockReservationEngine = stockReservationEngine;
+        this.lowStockNotifier = lowStockNotifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // The seed query runs in a read-write transaction, which keeps it on the primary. Read from a
+    // lagging replica, a recent crossing would be missing until the product changes again.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        lowStock.clear();
+        lowStockById.clear();
+        List<Product> belowThreshold = transactionTemplate.execute(status -> productRepository.findBelowReorderThreshold());
+        for (Product product : belowThreshold) {
+            LowStockProductDto entry = new LowStockProductDto(product.getId(), product.getName(),
+                    product.getQuantity(), product.getReorderThreshold());
+            lowStock.add(entry);
+            lowStockById.put(entry.id(), entry);
+        }
+    }
+
+    public List<LowStockProductDto> getLowStockProducts() {
+        return new ArrayList<>(lowStock);
+    }
+
+    public int size() {
+        return lowStockById.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        LowStockAlertDto alert = apply(event);
+        if (alert != null) {
+            lowStockNotifier.publish(alert);
+        }
+    }
+
+    private synchronized LowStockAlertDto apply(ProductChangedEvent event) {
+        ProductSnapshot after = event.after();
+        Long productId = after != null ? after.id() : event.before().id();
+        LowStockProductDto previous = lowStockById.get(productId);
+
+        if (after == null) {
+            if (previous == null) {
+                return null;
+            }
+            remove(previous);
+            return new LowStockAlertDto(LowStockTransition.REMOVED, previous);
+        }
+
+        // Events of concurrent orders can arrive out of commit order, the engine counter is
+        // always the latest available stock
+        int quantity = stockReservationEngine.available(productId).orElse(after.quantity());
+        LowStockProductDto current = new LowStockProductDto(productId, after.name(), quantity, after.reorderThreshold());
+        if (quantity < after.reorderThreshold()) {
+            if (previous != null) {
+                lowStock.remove(previous);
+            }
+            lowStock.add(current);
+            lowStockById.put(productId, current);
+            return previous == null ? new LowStockAlertDto(LowStockTransition.BELOW_THRESHOLD, current) : null;
+        }
+        if (previous != null) {
+            remove(previous);
+            return new LowStockAlertDto(LowStockTransition.RESTOCKED, current);
+        }
+        return null;
+    }
+
+    private void remove(LowStockProductDto entry) {
+        lowStock.remove(entry);
+        lowStockById.remove(entry.id());
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventorymanagement.ims.product;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Server-sent event subscribers for low stock alerts. Sends happen on a single dispatcher thread
+// so a slow client never holds up the transaction that caused the alert.
+@Component
+public class LowStockNotifier {
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutMillis;
+
+    public LowStockNotifier(@Value("${ims.low-stock.stream-timeout-ms:1800000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // The current low stock list is sent first, as a "snapshot" event
+    public SseEmitter subscribe(Supplier<List<LowStockProductDto>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        // Taken on the dispatcher after registering, so no alert can fall between snapshot and stream
+        dispatcher.execute(() -> send(emitter, SseEmitter.event().name("snapshot").data(snapshot.get())));
+        return emitter;
+    }
+
+    public void publish(LowStockAlertDto alert) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, SseEmitter.event().name("low-stock").data(alert));
+            }
+        });
+    }
+
+    // Keeps idle connections from being closed by proxies
+    @Scheduled(fixedDelayString = "${ims.low-stock.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, SseEmitter.event().comment("keep-alive"));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the container completes the emitter
+            emitters.remove(emitter);
+        }
+    }
+}
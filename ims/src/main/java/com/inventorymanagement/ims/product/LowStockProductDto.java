@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.product;
+
+public record LowStockProductDto(
+        Long id,
+        String name,
+        int quantity,
+        int reorderThreshold
+) {
+}
@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.product;
+
+public enum LowStockTransition {
+    BELOW_THRESHOLD,
+    RESTOCKED,
+    REMOVED
+}
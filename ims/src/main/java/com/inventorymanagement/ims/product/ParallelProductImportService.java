@@ -0,0 +1,324 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Imports several CSV files, or zips of them, by cutting them into shards of whole records. The
+// shards are parsed and validated on a fork-join pool and handed to concurrent writers. Rows are
+// routed to writers by a hash of the name, and shards are released in input order, so each name is
+// written by one writer only and the last occurrence in the upload wins, as in the single
+// threaded import.
+@Service
+public class ParallelProductImportService {
+
+    private static final int WRITER_QUEUE_CAPACITY = 4;
+
+    private final ProductImportChunkWriter importChunkWriter;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final ForkJoinPool parsePool;
+    private final int writers;
+    private final ExecutorService writerExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("import-writer-", 0).factory());
+
+    public ParallelProductImportService(ProductImportChunkWriter importChunkWriter,
+                                        OptimisticRetryExecutor optimisticRetryExecutor,
+                                        @Value("${ims.import.parallel.parse-threads:0}") int parseThreads,
+                                        @Value("${ims.import.parallel.writers:4}") int writers) {
+        if (writers <= 0) {
+            throw new IllegalArgumentException("ims.import.parallel.writers must be greater than zero");
+        }
+        this.importChunkWriter = importChunkWriter;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.parsePool = new ForkJoinPool(parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors());
+        this.writers = writers;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writerExecutor.shutdownNow();
+        parsePool.shutdownNow();
+        writerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ProductImportResult importInParallel(List<MultipartFile> files, int shardRows, int chunkSize) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("At least one file is required");
+        }
+        if (shardRows <= 0) {
+            throw new IllegalArgumentException("shardRows must be greater than zero");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(chunkSize);
+        try {
+            for (MultipartFile file : files) {
+                readShards(file, shardRows, run);
+            }
+            run.drainParsed();
+        } catch (IOException | RuntimeException e) {
+            run.abort(e);
+        } finally {
+            run.finishWriters();
+        }
+        return ProductImportResult.from(run.results(), System.nanoTime() - start);
+    }
+
+    private void readShards(MultipartFile file, int shardRows, ImportRun run) throws IOException {
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+            try (ZipInputStream zip = new ZipInputStream(file.getInputStream(), StandardCharsets.UTF_8)) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    String entryName = entry.getName().toLowerCase(Locale.ROOT);
+                    // Entries are taken in archive order, macOS resource forks are skipped
+                    if (!entry.isDirectory() && entryName.endsWith(".csv") && !entryName.startsWith("__macosx/")) {
+                        // Not closed here, that would close the archive before the next entry
+                        cutShards(new InputStreamReader(zip, StandardCharsets.UTF_8), shardRows, run);
+                    }
+                }
+            }
+        } else {
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                cutShards(reader, shardRows, run);
+            }
+        }
+    }
+
+    // Splits on record boundaries without parsing: a line only ends a record when the quotes seen
+    // so far are balanced, so quoted values spanning several lines stay in one shard. Every shard
+    // repeats the header of its file and parses on its own.
+    private void cutShards(Reader reader, int shardRows, ImportRun run) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String header = lines.readLine();
+        if (header == null) {
+            return;
+        }
+        StringBuilder shard = new StringBuilder(header).append('\n');
+        int records = 0;
+        boolean inQuotes = false;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            shard.append(line).append('\n');
+            if (countQuotes(line) % 2 != 0) {
+                inQuotes = !inQuotes;
+            }
+            if (!inQuotes && ++records == shardRows) {
+                run.submitShard(shard.toString());
+                shard = new StringBuilder(header).append('\n');
+                records = 0;
+            }
+        }
+        if (records > 0 || inQuotes) {
+            run.submitShard(shard.toString());
+        }
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    private static ParsedShard parse(int ordinal, String csv) {
+        AtomicInteger rejected = new AtomicInteger();
+        CsvToBean<Product> csvToBean = new CsvToBeanBuilder<Product>(new StringReader(csv))
+                .withType(Product.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .withExceptionHandler(e -> {
+                    rejected.incrementAndGet();
+                    return null;
+                })
+                .build();
+        List<Product> rows = new ArrayList<>();
+        for (Product product : csvToBean) {
+            if (ProductImportChunkWriter.isValid(product)) {
+                rows.add(product);
+            } else {
+                rejected.incrementAndGet();
+            }
+        }
+        return new ParsedShard(ordinal, rows, rejected.get());
+    }
+
+    private record ParsedShard(int ordinal, List<Product> rows, int rejected) {
+    }
+
+    private record ShardSlice(List<Product> rows, int rejected) {
+        static final ShardSlice END = new ShardSlice(List.of(), 0);
+    }
+
+    // State of one import call. Parsing runs ahead of the writers by at most two shards per parse
+    // thread, and the bounded writer queues hold back the reader when the database falls behind.
+    private final class ImportRun {
+
+        private final int chunkSize;
+        private final Deque<ForkJoinTask<ParsedShard>> parsing = new ArrayDeque<>();
+        private final List<BlockingQueue<ShardSlice>> queues = new ArrayList<>(writers);
+        private final List<Future<List<ImportChunkResult>>> writerResults = new ArrayList<>(writers);
+        private final AtomicInteger chunkNumbers = new AtomicInteger();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private int shards;
+
+        ImportRun(int chunkSize) {
+            this.chunkSize = chunkSize;
+            for (int i = 0; i < writers; i++) {
+                BlockingQueue<ShardSlice> queue = new ArrayBlockingQueue<>(WRITER_QUEUE_CAPACITY);
+                queues.add(queue);
+                writerResults.add(writerExecutor.submit(() -> write(queue)));
+            }
+        }
+
+        void submitShard(String csv) {
+            int ordinal = shards++;
+            parsing.addLast(parsePool.submit(() -> parse(ordinal, csv)));
+            if (parsing.size() >= parsePool.getParallelism() * 2) {
+                dispatch(parsing.removeFirst().join());
+            }
+        }
+
+        void drainParsed() {
+            while (!parsing.isEmpty()) {
+                dispatch(parsing.removeFirst().join());
+            }
+        }
+
+        void abort(Exception e) {
+            failure.compareAndSet(null, e);
+            parsing.forEach(task -> task.cancel(true));
+            parsing.clear();
+        }
+
+        private void dispatch(ParsedShard shard) {
+            List<List<Product>> partitions = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            for (Product product : shard.rows()) {
+                partitions.get(Math.floorMod(product.getName().hashCode(), writers)).add(product);
+            }
+            int rejectedWriter = shard.ordinal() % writers;
+            for (int i = 0; i < writers; i++) {
+                int rejected = i == rejectedWriter ? shard.rejected() : 0;
+                if (!partitions.get(i).isEmpty() || rejected > 0) {
+                    put(queues.get(i), new ShardSlice(partitions.get(i), rejected));
+                }
+            }
+        }
+
+        void finishWriters() {
+            queues.forEach(queue -> put(queue, ShardSlice.END));
+        }
+
+        List<ImportChunkResult> results() {
+            List<ImportChunkResult> results = new ArrayList<>();
+            for (Future<List<ImportChunkResult>> writerResult : writerResults) {
+                try {
+                    results.addAll(writerResult.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the import writers", e);
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause() instanceof Exception cause ? cause : e);
+                }
+            }
+            Exception e = failure.get();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e != null) {
+                throw new RuntimeException("Failed to import CSV data: " + e.getMessage(), e);
+            }
+            results.sort(Comparator.comparingInt(ImportChunkResult::chunkNumber));
+            return results;
+        }
+
+        private void put(BlockingQueue<ShardSlice> queue, ShardSlice slice) {
+            try {
+                queue.put(slice);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while handing rows to the import writers", e);
+            }
+        }
+
+        // Fills chunks from the writer's own queue. After a failure anywhere the writer keeps
+        // taking slices without writing them, so the reader is never left blocked on a full queue.
+        private List<ImportChunkResult> write(BlockingQueue<ShardSlice> queue) throws InterruptedException {
+            List<ImportChunkResult> results = new ArrayList<>();
+            List<Product> pending = new ArrayList<>(chunkSize);
+            int pendingRejected = 0;
+            ShardSlice slice;
+            while ((slice = queue.take()) != ShardSlice.END) {
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    pendingRejected += slice.rejected();
+                    for (Product product : slice.rows()) {
+                        pending.add(product);
+                        if (pending.size() == chunkSize) {
+                            results.add(writeChunk(pending, pendingRejected));
+                            pending = new ArrayList<>(chunkSize);
+                            pendingRejected = 0;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+            if (failure.get() == null && (!pending.isEmpty() || pendingRejected > 0)) {
+                try {
+                    results.add(writeChunk(pending, pendingRejected));
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+            return results;
+        }
+
+        private ImportChunkResult writeChunk(List<Product> rows, int rejected) {
+            int chunkNumber = chunkNumbers.incrementAndGet();
+            return optimisticRetryExecutor.execute(() -> importChunkWriter.writeChunk(chunkNumber, rows, rejected));
+        }
+    }
+}
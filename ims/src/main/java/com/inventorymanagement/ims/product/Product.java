@@ -1,34 +1,46 @@
 package com.inventorymanagement.ims.product;
 
+import com.inventorymanagement.ims.cache.CacheRegions;
 import com.opencsv.bean.CsvBindByName;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
-import jakarta.persistence.ManyToMany;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.JoinColumn;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Entity
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCTS)
 public class Product {
 
+    public static final int DEFAULT_REORDER_THRESHOLD = 10;
+
     private boolean isBundle = false;
 
-    @ManyToMany
-    @JoinTable(
-            name = "product_bundles",
-            joinColumns = @JoinColumn(name = "bundle_id"),
-            inverseJoinColumns = @JoinColumn(name = "component_id")
-    )
-    private Set<Product> bundledProducts = new HashSet<>();
+    // The sellable quantity of a bundle is derived from these by BundleGraph, not from quantity
+    @OneToMany(mappedBy = "bundle", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_COMPONENTS)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<BundleComponent> components = new ArrayList<>();
 
+    // Ids come from a pooled sequence 50 at a time, unlike IDENTITY this lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CsvBindByName(column = "NAME")
     @Column(unique = true)
     private String name;
@@ -42,6 +54,11 @@ public class Product {
     @CsvBindByName(column = "QUANTITY")
     private int quantity;
 
+    // The product is reported as low on stock while quantity is below this
+    @ColumnDefault("10")
+    @Column(nullable = false)
+    private int reorderThreshold = DEFAULT_REORDER_THRESHOLD;
+
     @CsvBindByName(column = "PRODUCT_SIZE")
     @Column(name = "product_size")
     private String size;
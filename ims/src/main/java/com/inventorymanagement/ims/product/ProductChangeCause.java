@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.product;
+
+// Why a product changed. Stock taken by an order is a sale, every other change is an edit,
+// import or adjustment of the product itself.
+public enum ProductChangeCause {
+    UPDATE,
+    ORDER
+}
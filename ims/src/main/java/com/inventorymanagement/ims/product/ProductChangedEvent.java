@@ -0,0 +1,21 @@
+package com.inventorymanagement.ims.product;
+
+// Published whenever a product row or its available stock changes. before is null for a new
+// product and after is null for a deleted one.
+public record ProductChangedEvent(
+        ProductSnapshot before,
+        ProductSnapshot after,
+        ProductChangeCause cause
+) {
+    public ProductChangedEvent(ProductSnapshot before, ProductSnapshot after) {
+        this(before, after, ProductChangeCause.UPDATE);
+    }
+
+    public static ProductChangedEvent created(ProductSnapshot after) {
+        return new ProductChangedEvent(null, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductSnapshot before) {
+        return new ProductChangedEvent(before, null);
+    }
+}
@@ -1,15 +1,25 @@
 package com.inventorymanagement.ims.product;
 
 import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.httpcache.ResourceVersions;
+import com.inventorymanagement.ims.httpcache.VersionedCollection;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import java.util.List;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.bind.annotation.RequestParam;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,31 +27,68 @@ import java.io.Writer;
 public class ProductController {
 
     private final ProductService productService;
+    private final ParallelProductImportService parallelImportService;
+    private final ResourceVersions resourceVersions;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ParallelProductImportService parallelImportService,
+                             ResourceVersions resourceVersions) {
         this.productService = productService;
+        this.parallelImportService = parallelImportService;
+        this.resourceVersions = resourceVersions;
     }
 
-    @PostMapping("/import")
-    public ResponseEntity<String> importProducts(@RequestParam("file") MultipartFile file) {
-        productService.importProductsFromCsv(file);
-        return ResponseEntity.ok("Successfully imported products from CSV file.");
+    @PostMapping("/import/stream")
+    public ResponseEntity<ProductImportResult> importProductsStreaming(@RequestParam("file") MultipartFile file,
+                                                                       @RequestParam(defaultValue = "1000") int chunkSize) {
+        return ResponseEntity.ok(productService.importProductsFromCsvStreaming(file, chunkSize));
+    }
+
+    // Several CSV files and zips of CSV files in one request, written by concurrent writers
+    @PostMapping("/import/parallel")
+    public ResponseEntity<ProductImportResult> importProductsInParallel(@RequestParam("files") List<MultipartFile> files,
+                                                                        @RequestParam(defaultValue = "5000") int shardRows,
+                                                                        @RequestParam(defaultValue = "1000") int chunkSize) {
+        return ResponseEntity.ok(parallelImportService.importInParallel(files, shardRows, chunkSize));
     }
 
     @GetMapping("/export")
-    public void exportProducts(HttpServletResponse response) {
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=\"products.csv\"");
-        try {
+    public void exportProducts(@RequestParam(defaultValue = "false") boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        if (gzip) {
+            response.setContentType("application/gzip");
+            response.setHeader("Content-Disposition", "attachment; filename=\"products.csv.gz\"");
+            // syncFlush so every page flushed by the service actually reaches the client
+            try (Writer writer = new OutputStreamWriter(
+                    new GZIPOutputStream(response.getOutputStream(), 8192, true), StandardCharsets.UTF_8)) {
+                productService.exportProductsToCsv(writer);
+            }
+        } else {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader("Content-Disposition", "attachment; filename=\"products.csv\"");
             productService.exportProductsToCsv(response.getWriter());
-        } catch (Exception e) {
-            // Handle exception
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<ProductPageDto> getProducts(@RequestParam(required = false) String namePrefix,
+                                                      @RequestParam(required = false) String size,
+                                                      @RequestParam(required = false) String color,
+                                                      @RequestParam(required = false) Double minPrice,
+                                                      @RequestParam(required = false) Double maxPrice,
+                                                      @RequestParam(required = false) Boolean bundle,
+                                                      @RequestParam(defaultValue = "id") String sort,
+                                                      @RequestParam(defaultValue = "asc") String direction,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit,
+                                                      ServletWebRequest request) {
+        // Answered from the catalog version alone when the client's copy is current
+        if (ResourceVersions.notModified(request, resourceVersions.collectionTag(VersionedCollection.PRODUCTS))) {
+            return null;
+        }
+        ProductListQuery query = new ProductListQuery(namePrefix, size, color, minPrice, maxPrice, bundle,
+                ProductSort.from(sort), Sort.Direction.fromString(direction), cursor, limit);
+        return ResponseEntity.ok(productService.listProducts(query));
     }
 
     @PostMapping
@@ -50,7 +97,10 @@ public class ProductController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        if (ResourceVersions.notModified(request, resourceVersions.productTag(id))) {
+            return null;
+        }
         return ResponseEntity.ok(productService.getProductById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)));
     }
@@ -67,10 +117,17 @@ public class ProductController {
     }
 
     @GetMapping("/low-stock")
-    public ResponseEntity<List<ProductDto>> getLowStockProducts() {
+    public ResponseEntity<List<LowStockProductDto>> getLowStockProducts() {
         return ResponseEntity.ok(productService.findLowStockProducts());
     }
 
+    // Server-sent events: a "snapshot" of the current list, then a "low-stock" event whenever a
+    // product falls below or recovers above its reorder threshold
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts() {
+        return productService.subscribeToLowStock();
+    }
+
     @PostMapping("/bundles")
     public ResponseEntity<ProductDto> createOrUpdateBundle(@RequestBody CreateBundleDto createBundleDto) {
         ProductDto updatedBundle = productService.createOrUpdateBundle(createBundleDto);
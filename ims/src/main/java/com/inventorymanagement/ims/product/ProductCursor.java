@@ -0,0 +1,37 @@
+package com.inventorymanagement.ims.product;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Keyset position in a product listing: the sort key and id of the last row returned.
+// Encoded as an opaque URL-safe string that is only valid for the same sort and direction.
+public record ProductCursor(ProductSort sort, Sort.Direction direction, long id, String key) {
+
+    public static ProductCursor after(ProductSort sort, Sort.Direction direction, ProductListingRow row) {
+        return new ProductCursor(sort, direction, row.id(), sort.keyOf(row));
+    }
+
+    public String encode() {
+        // A null key leaves out the last separator, so it stays distinct from an empty name
+        String raw = sort + "|" + direction + "|" + id + (key == null ? "" : "|" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor, ProductSort sort, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The key goes last because a product name may itself contain the separator
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length < 3
+                    || ProductSort.valueOf(parts[0]) != sort
+                    || Sort.Direction.valueOf(parts[1]) != direction) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            return new ProductCursor(sort, direction, Long.parseLong(parts[2]), parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+    }
+}
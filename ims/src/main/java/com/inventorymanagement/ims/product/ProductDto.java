@@ -8,9 +8,13 @@ public record ProductDto(
         String description,
         double price,
         int quantity,
+        // Null on create means the default threshold, on update it keeps the current one
+        Integer reorderThreshold,
         String size,
         String color,
         boolean isBundle,
-        Set<BundledProductDto> bundledProducts
+        Set<BundledProductDto> bundledProducts,
+        // Version the client read; an update must send it back and fails with 409 if it is stale
+        Long version
 ) {
 }
\ No newline at end of file
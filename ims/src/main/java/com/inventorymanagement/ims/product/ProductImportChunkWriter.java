@@ -0,0 +1,136 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Writes one chunk of CSV rows per transaction. Existing products are resolved with a single
+// IN query and the persistence context is flushed and cleared before the chunk commits, so
+// memory stays bounded by the chunk size rather than the size of the upload.
+@Component
+public class ProductImportChunkWriter {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final StockReservationEngine stockReservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer chunkTimer;
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter rejectedRows;
+
+    public ProductImportChunkWriter(ProductRepository productRepository, EntityManager entityManager,
+                                    StockReservationEngine stockReservationEngine,
+                                    ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.stockReservationEngine = stockReservationEngine;
+        this.eventPublisher = eventPublisher;
+        this.chunkTimer = Timer.builder("ims.import.chunk")
+                .description("Time to write one chunk of imported rows")
+                .register(meterRegistry);
+        this.insertedRows = importedRows(meterRegistry, "inserted");
+        this.updatedRows = importedRows(meterRegistry, "updated");
+        this.rejectedRows = importedRows(meterRegistry, "rejected");
+    }
+
+    private static Counter importedRows(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ims.import.rows")
+                .description("Imported CSV rows by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public ImportChunkResult writeChunk(int chunkNumber, List<Product> rows, int parseRejected) {
+        long start = System.nanoTime();
+        // Let Hibernate send the whole chunk as JDBC batches regardless of the global batch size
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(rows.size(), 1));
+
+        int inserted = 0;
+        int updated = 0;
+        int rejected = parseRejected;
+
+        Set<String> names = rows.stream()
+                .filter(ProductImportChunkWriter::isValid)
+                .map(Product::getName)
+                .collect(Collectors.toSet());
+
+        Map<String, Product> productsByName = new HashMap<>();
+        Map<Long, Integer> updatedStock = new HashMap<>();
+        List<ProductChangedEvent> events = new ArrayList<>();
+        if (!names.isEmpty()) {
+            for (Product existing : productRepository.findByNameIn(names)) {
+                productsByName.put(existing.getName(), existing);
+            }
+        }
+
+        for (Product csvProduct : rows) {
+            if (!isValid(csvProduct)) {
+                rejected++;
+                continue;
+            }
+
+            Product dbProduct = productsByName.get(csvProduct.getName());
+            if (dbProduct != null) {
+                // Managed entity, the UPDATE is issued by dirty checking on flush
+                ProductSnapshot before = ProductSnapshot.current(dbProduct, stockReservationEngine);
+                dbProduct.setDescription(csvProduct.getDescription());
+                dbProduct.setPrice(csvProduct.getPrice());
+                dbProduct.setQuantity(csvProduct.getQuantity());
+                dbProduct.setSize(csvProduct.getSize());
+                dbProduct.setColor(csvProduct.getColor());
+                updatedStock.put(dbProduct.getId(), dbProduct.getQuantity());
+                events.add(new ProductChangedEvent(before, ProductSnapshot.of(dbProduct)));
+                updated++;
+            } else {
+                Product newProduct = ProductService.copyOf(csvProduct);
+                entityManager.persist(newProduct);
+                productsByName.put(newProduct.getName(), newProduct);
+                events.add(ProductChangedEvent.created(ProductSnapshot.of(newProduct)));
+                inserted++;
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        stockReservationEngine.overwriteAfterCommit(updatedStock);
+        events.forEach(eventPublisher::publishEvent);
+
+        ImportChunkResult result = new ImportChunkResult(chunkNumber, rows.size() + parseRejected, inserted, updated, rejected);
+        chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        // Only committed rows count, a chunk retried after a conflict is counted once
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                insertedRows.increment(result.inserted());
+                updatedRows.increment(result.updated());
+                rejectedRows.increment(result.rejected());
+            }
+        });
+        return result;
+    }
+
+    static boolean isValid(Product product) {
+        return product.getName() != null
+                && !product.getName().isBlank()
+                && product.getPrice() >= 0
+                && product.getQuantity() >= 0;
+    }
+}
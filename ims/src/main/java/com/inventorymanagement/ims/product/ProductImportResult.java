@@ -0,0 +1,27 @@
+package com.inventorymanagement.ims.product;
+
+import java.util.List;
+
+public record ProductImportResult(
+        long totalRows,
+        long inserted,
+        long updated,
+        long rejected,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<ImportChunkResult> chunks
+) {
+
+    public static ProductImportResult from(List<ImportChunkResult> chunks, long elapsedNanos) {
+        long rows = 0, inserted = 0, updated = 0, rejected = 0;
+        for (ImportChunkResult chunk : chunks) {
+            rows += chunk.rows();
+            inserted += chunk.inserted();
+            updated += chunk.updated();
+            rejected += chunk.rejected();
+        }
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? rows / seconds : 0;
+        return new ProductImportResult(rows, inserted, updated, rejected, elapsedNanos / 1_000_000, rowsPerSecond, chunks);
+    }
+}
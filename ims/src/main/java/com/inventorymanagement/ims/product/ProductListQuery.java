@@ -0,0 +1,17 @@
+package com.inventorymanagement.ims.product;
+
+import org.springframework.data.domain.Sort;
+
+public record ProductListQuery(
+        String namePrefix,
+        String size,
+        String color,
+        Double minPrice,
+        Double maxPrice,
+        Boolean bundle,
+        ProductSort sort,
+        Sort.Direction direction,
+        String cursor,
+        int limit
+) {
+}
@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.product;
+
+import java.util.List;
+
+public interface ProductListingRepository {
+
+    List<ProductListingRow> findListingPage(ProductListQuery query, ProductCursor cursor, int limit);
+}
@@ -0,0 +1,142 @@
+package com.inventorymanagement.ims.product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Builds the listing query with the Criteria API so only the requested filters end up in the
+// WHERE clause. Pages are read with a keyset predicate on (sort key, id) instead of an offset.
+public class ProductListingRepositoryImpl implements ProductListingRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductListingRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductListingRow> findListingPage(ProductListQuery query, ProductCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductListingRow> cq = cb.createQuery(ProductListingRow.class);
+        Root<Product> product = cq.from(Product.class);
+
+        cq.select(cb.construct(ProductListingRow.class,
+                product.get("id"),
+                product.get("name"),
+                product.get("description"),
+                product.get("price"),
+                product.get("quantity"),
+                product.get("reorderThreshold"),
+                product.get("size"),
+                product.get("color"),
+                product.get("isBundle"),
+                product.get("version")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.namePrefix() != null && !query.namePrefix().isBlank()) {
+            String pattern = escapeLike(query.namePrefix().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(product.get("name")), pattern, '\\'));
+        }
+        if (query.size() != null && !query.size().isBlank()) {
+            predicates.add(cb.equal(cb.lower(product.get("size")), query.size().trim().toLowerCase(Locale.ROOT)));
+        }
+        if (query.color() != null && !query.color().isBlank()) {
+            predicates.add(cb.equal(cb.lower(product.get("color")), query.color().trim().toLowerCase(Locale.ROOT)));
+        }
+        if (query.minPrice() != null) {
+            predicates.add(cb.ge(product.get("price"), query.minPrice()));
+        }
+        if (query.maxPrice() != null) {
+            predicates.add(cb.le(product.get("price"), query.maxPrice()));
+        }
+        if (query.bundle() != null) {
+            predicates.add(cb.equal(product.get("isBundle"), query.bundle()));
+        }
+
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>();
+        Path<Long> id = product.get("id");
+        Expression<?> sortKey;
+        switch (query.sort()) {
+            case NAME -> {
+                // Null names come first in ascending order, on every database. Coalescing to ''
+                // does not work on Oracle, where '' is null.
+                Path<String> name = product.get("name");
+                sortKey = name;
+                orders.add(ascending ? cb.asc(nullsFirst(cb, name)) : cb.desc(nullsFirst(cb, name)));
+                if (cursor != null) {
+                    predicates.add(afterName(cb, name, cursor.key(), id, cursor.id(), ascending));
+                }
+            }
+            case PRICE -> {
+                Path<Double> price = product.get("price");
+                sortKey = price;
+                if (cursor != null) {
+                    predicates.add(after(cb, price, Double.valueOf(cursor.key()), id, cursor.id(), ascending));
+                }
+            }
+            case QUANTITY -> {
+                Path<Integer> quantity = product.get("quantity");
+                sortKey = quantity;
+                if (cursor != null) {
+                    predicates.add(after(cb, quantity, Integer.valueOf(cursor.key()), id, cursor.id(), ascending));
+                }
+            }
+            default -> {
+                sortKey = id;
+                if (cursor != null) {
+                    predicates.add(ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id()));
+                }
+            }
+        }
+
+        orders.add(ascending ? cb.asc(sortKey) : cb.desc(sortKey));
+        if (sortKey != id) {
+            orders.add(ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        cq.where(predicates.toArray(new Predicate[0])).orderBy(orders);
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<? extends Y> key, Y value,
+                                                                     Path<Long> id, long lastId, boolean ascending) {
+        Predicate beyond = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate tieBreak = cb.and(
+                cb.equal(key, value),
+                ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+        return cb.or(beyond, tieBreak);
+    }
+
+    // Same as after(), with null names ordered before all others. A null cursor key is a null name.
+    private static Predicate afterName(CriteriaBuilder cb, Path<String> name, String value,
+                                       Path<Long> id, long lastId, boolean ascending) {
+        if (value == null) {
+            Predicate tieBreak = cb.and(cb.isNull(name), ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+            return ascending ? cb.or(tieBreak, cb.isNotNull(name)) : tieBreak;
+        }
+        Predicate nonNull = after(cb, name, value, id, lastId, ascending);
+        return ascending ? nonNull : cb.or(nonNull, cb.isNull(name));
+    }
+
+    private static Expression<Integer> nullsFirst(CriteriaBuilder cb, Path<String> name) {
+        return cb.<Integer>selectCase().when(cb.isNull(name), 0).otherwise(1);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.inventorymanagement.ims.product;
+
+// Scalar projection of a product used by the listing query, so no entities or lazy
+// collections are loaded for a page
+public record ProductListingRow(
+        Long id,
+        String name,
+        String description,
+        double price,
+        int quantity,
+        int reorderThreshold,
+        String size,
+        String color,
+        boolean isBundle,
+        Long version
+) {
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.product;
+
+import java.util.List;
+
+public record ProductPageDto(
+        List<ProductDto> items,
+        // Opaque keyset cursor for the next page, null on the last page
+        String nextCursor
+) {
+}
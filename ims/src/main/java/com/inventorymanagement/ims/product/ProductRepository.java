@@ -1,20 +1,55 @@
 package com.inventorymanagement.ims.product;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductListingRepository {
 
-    List<Product> findByQuantityLessThan(int quantity);
+    // Used once at startup to seed LowStockIndex, which is maintained incrementally afterwards
+    @Query("SELECT p FROM Product p WHERE p.quantity < p.reorderThreshold")
+    List<Product> findBelowReorderThreshold();
 
+    // Served from the query cache until the products table is next written through Hibernate
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Product> findByName(String name);
 
+    List<Product> findByNameIn(Collection<String> names);
+
+    // Keyset page over the primary key, used to stream the catalog without offset scans. A full
+    // pass would only churn the second-level cache, so these reads bypass it.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")
+    })
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset page of scalar rows, for full catalog passes that need no entities
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.inventorymanagement.ims.product.ProductStockRow(p.id, p.name, p.quantity, p.isBundle) " +
+            "FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<ProductStockRow> findStockRowsAfter(@Param("after") Long after, Limit limit);
+
+    // Component names for a page of bundles in one join instead of one lazy load per bundle
+    @Query("SELECT new com.inventorymanagement.ims.product.BundleComponentRow(bc.id.bundleId, c.id, c.name, bc.quantity) " +
+            "FROM BundleComponent bc JOIN bc.component c WHERE bc.id.bundleId IN :bundleIds")
+    List<BundleComponentRow> findBundleComponents(@Param("bundleIds") Collection<Long> bundleIds);
+
+    // Every bundle edge with the component's stock, loaded once to seed BundleGraph
+    @Query("SELECT new com.inventorymanagement.ims.product.BundleEdge(bc.id.bundleId, c.id, bc.quantity, c.quantity) " +
+            "FROM BundleComponent bc JOIN bc.component c")
+    List<BundleEdge> findAllBundleEdges();
+
     @Query("SELECT SUM(p.price * p.quantity) FROM Product p")
     BigDecimal getTotalInventoryValue();
 
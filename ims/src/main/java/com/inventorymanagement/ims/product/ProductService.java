@@ -1,6 +1,15 @@
 package com.inventorymanagement.ims.product;
 
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import com.inventorymanagement.ims.exception.ConflictException;
 import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -8,151 +17,333 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import com.opencsv.CSVReader;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.StatefulBeanToCsv;
 import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import com.opencsv.exceptions.CsvException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductImportChunkWriter importChunkWriter;
+    private final EntityManager entityManager;
+    private final StockReservationEngine stockReservationEngine;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LowStockIndex lowStockIndex;
+    private final LowStockNotifier lowStockNotifier;
+    private final BundleGraph bundleGraph;
+    private final Counter exportedRows;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductImportChunkWriter importChunkWriter,
+                          EntityManager entityManager, StockReservationEngine stockReservationEngine,
+                          OptimisticRetryExecutor optimisticRetryExecutor, ApplicationEventPublisher eventPublisher,
+                          LowStockIndex lowStockIndex, LowStockNotifier lowStockNotifier, BundleGraph bundleGraph,
+                          MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
+        this.importChunkWriter = importChunkWriter;
+        this.entityManager = entityManager;
+        this.stockReservationEngine = stockReservationEngine;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.eventPublisher = eventPublisher;
+        this.lowStockIndex = lowStockIndex;
+        this.lowStockNotifier = lowStockNotifier;
+        this.bundleGraph = bundleGraph;
+        this.exportedRows = Counter.builder("ims.export.rows")
+                .description("Rows written by the CSV export")
+                .register(meterRegistry);
     }
 
-    private static final int LOW_STOCK_THRESHOLD = 10;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 500;
 
-    public List<ProductDto> findLowStockProducts() {
-        return productRepository.findByQuantityLessThan(LOW_STOCK_THRESHOLD)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LowStockProductDto> findLowStockProducts() {
+        return lowStockIndex.getLowStockProducts();
     }
 
-    @Transactional
+    public SseEmitter subscribeToLowStock() {
+        return lowStockNotifier.subscribe(lowStockIndex::getLowStockProducts);
+    }
+
+    // Walks the CSV iterator instead of parsing the whole upload into memory. Every chunk is
+    // written and committed on its own, so a 500k row feed never holds more than one chunk.
     @PreAuthorize("hasRole('ADMIN')")
-    public void importProductsFromCsv(MultipartFile file) {
-        try (Reader reader = new InputStreamReader(file.getInputStream())) {
+    public ProductImportResult importProductsFromCsvStreaming(MultipartFile file, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+
+        long start = System.nanoTime();
+        List<ImportChunkResult> chunkResults = new ArrayList<>();
+        // Rows OpenCSV could not bind (bad numbers, wrong column count) are counted and skipped
+        AtomicInteger parseRejected = new AtomicInteger();
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
             CsvToBean<Product> csvToBean = new CsvToBeanBuilder<Product>(reader)
                     .withType(Product.class)
                     .withIgnoreLeadingWhiteSpace(true)
+                    .withExceptionHandler(e -> {
+                        parseRejected.incrementAndGet();
+                        return null;
+                    })
                     .build();
 
-            List<Product> csvProducts = csvToBean.parse();
-
-            for (Product csvProduct : csvProducts) {
-                // Check if a product with the same name already exists
-                Optional<Product> existingProductOpt = productRepository.findByName(csvProduct.getName());
-
-                if (existingProductOpt.isPresent()) {
-                    // If it exists, UPDATE the existing product
-                    Product dbProduct = existingProductOpt.get();
-                    dbProduct.setDescription(csvProduct.getDescription());
-                    dbProduct.setPrice(csvProduct.getPrice());
-                    dbProduct.setQuantity(csvProduct.getQuantity());
-                    dbProduct.setSize(csvProduct.getSize());
-                    dbProduct.setColor(csvProduct.getColor());
-                    productRepository.save(dbProduct); // This will be an UPDATE
-                } else {
-                    // If it does not exist, INSERT the new product
-                    productRepository.save(csvProduct); // This will be an INSERT
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            for (Product csvProduct : csvToBean) {
+                chunk.add(csvProduct);
+                if (chunk.size() == chunkSize) {
+                    chunkResults.add(writeChunk(chunkResults.size() + 1, chunk, parseRejected.getAndSet(0)));
+                    chunk = new ArrayList<>(chunkSize);
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to import CSV data: " + e.getMessage());
+            if (!chunk.isEmpty() || parseRejected.get() > 0) {
+                chunkResults.add(writeChunk(chunkResults.size() + 1, chunk, parseRejected.getAndSet(0)));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to import CSV data: " + e.getMessage(), e);
         }
+
+        return ProductImportResult.from(chunkResults, System.nanoTime() - start);
+    }
+
+    private ImportChunkResult writeChunk(int chunkNumber, List<Product> rows, int parseRejected) {
+        return optimisticRetryExecutor.execute(() -> importChunkWriter.writeChunk(chunkNumber, rows, parseRejected));
     }
 
+    // Streams the catalog page by page using keyset pagination on the primary key. Each page is
+    // written and flushed to the client, then detached, so heap use does not grow with the table.
+    @Transactional(readOnly = true)
     public void exportProductsToCsv(Writer writer) {
         try {
-            List<Product> products = productRepository.findAll();
             StatefulBeanToCsv<Product> beanToCsv = new StatefulBeanToCsvBuilder<Product>(writer).build();
-            beanToCsv.write(products);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to export CSV data: " + e.getMessage());
+            long lastId = 0L;
+            List<Product> page;
+            do {
+                page = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(EXPORT_PAGE_SIZE));
+                // The first write also emits the header, even for an empty catalog
+                beanToCsv.write(page);
+                writer.flush();
+                exportedRows.increment(page.size());
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                entityManager.clear();
+            } while (page.size() == EXPORT_PAGE_SIZE);
+        } catch (CsvException | IOException e) {
+            throw new RuntimeException("Failed to export CSV data: " + e.getMessage(), e);
         }
     }
 
     // --- Public methods now use DTOs ---
 
-    public List<ProductDto> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // One projection query for the page plus one join for the components of the bundles on it
+    @Transactional(readOnly = true)
+    public ProductPageDto listProducts(ProductListQuery query) {
+        if (query.limit() < 1 || query.limit() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductCursor cursor = query.cursor() == null || query.cursor().isBlank()
+                ? null
+                : ProductCursor.decode(query.cursor(), query.sort(), query.direction());
+
+        // Fetch one extra row to find out whether another page exists
+        List<ProductListingRow> rows = productRepository.findListingPage(query, cursor, query.limit() + 1);
+        boolean hasMore = rows.size() > query.limit();
+        if (hasMore) {
+            rows = rows.subList(0, query.limit());
+        }
+
+        List<Long> bundleIds = rows.stream()
+                .filter(ProductListingRow::isBundle)
+                .map(ProductListingRow::id)
+                .toList();
+        Map<Long, Set<BundledProductDto>> componentsByBundle = new HashMap<>();
+        if (!bundleIds.isEmpty()) {
+            for (BundleComponentRow component : productRepository.findBundleComponents(bundleIds)) {
+                componentsByBundle.computeIfAbsent(component.bundleId(), id -> new HashSet<>())
+                        .add(new BundledProductDto(component.componentId(), component.componentName(),
+                                component.quantity()));
+            }
+        }
+
+        List<ProductDto> items = rows.stream()
+                .map(row -> new ProductDto(
+                        row.id(),
+                        row.name(),
+                        row.description(),
+                        row.price(),
+                        row.isBundle()
+                                ? bundleGraph.availableQuantity(row.id()).orElse(row.quantity())
+                                : row.quantity(),
+                        row.reorderThreshold(),
+                        row.size(),
+                        row.color(),
+                        row.isBundle(),
+                        componentsByBundle.getOrDefault(row.id(), new HashSet<>()),
+                        row.version()))
+                .toList();
+
+        String nextCursor = hasMore
+                ? ProductCursor.after(query.sort(), query.direction(), rows.get(rows.size() - 1)).encode()
+                : null;
+        return new ProductPageDto(items, nextCursor);
     }
 
+    @Transactional(readOnly = true)
     public Optional<ProductDto> getProductById(Long id) {
         return productRepository.findById(id).map(this::convertToDto);
     }
 
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public ProductDto addProduct(ProductDto productDto) {
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(ProductSnapshot.of(savedProduct)));
         return convertToDto(savedProduct);
     }
 
+    // The DTO holds absolute values, so when it carries the version the client read it only applies
+    // to that version: a retry after a concurrent write re-reads the product and fails with 409.
+    // Without a version the update is last-write-wins, as for clients that predate the field.
     @PreAuthorize("hasRole('ADMIN')")
     public ProductDto updateProduct(Long id, ProductDto productDto) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        return optimisticRetryExecutor.execute(() -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+            if (productDto.version() != null && !productDto.version().equals(product.getVersion())) {
+                throw new ConflictException("Product " + id + " was modified by someone else (version "
+                        + product.getVersion() + ", expected " + productDto.version() + ")");
+            }
+            ProductSnapshot before = ProductSnapshot.current(product, stockReservationEngine);
 
-        // Update entity from DTO
-        product.setName(productDto.name());
-        product.setDescription(productDto.description());
-        product.setPrice(productDto.price());
-        product.setQuantity(productDto.quantity());
-        product.setSize(productDto.size());
-        product.setColor(productDto.color());
+            // Update entity from DTO
+            product.setName(productDto.name());
+            product.setDescription(productDto.description());
+            product.setPrice(productDto.price());
+            product.setQuantity(productDto.quantity());
+            product.setSize(productDto.size());
+            product.setColor(productDto.color());
+            applyReorderThreshold(product, productDto);
 
-        Product updatedProduct = productRepository.save(product);
-        return convertToDto(updatedProduct);
+            Product savedProduct = productRepository.save(product);
+            stockReservationEngine.overwriteAfterCommit(Map.of(savedProduct.getId(), savedProduct.getQuantity()));
+            eventPublisher.publishEvent(new ProductChangedEvent(before, ProductSnapshot.of(savedProduct)));
+            return convertToDto(savedProduct);
+        });
     }
 
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        ProductSnapshot before = ProductSnapshot.current(product, stockReservationEngine);
+        productRepository.delete(product);
+        stockReservationEngine.forget(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(before));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     public ProductDto createOrUpdateBundle(CreateBundleDto createBundleDto) {
-        // Find the product that will become the bundle
-        Product bundleProduct = productRepository.findById(createBundleDto.bundleProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Bundle product not found with id: " + createBundleDto.bundleProductId()));
-
-        bundleProduct.setBundle(true); // Mark it as a bundle
-        bundleProduct.getBundledProducts().clear(); // Clear existing components for updates
-
-        // Find and add all component products
-        for (Long componentId : createBundleDto.componentProductIds()) {
-            Product componentProduct = productRepository.findById(componentId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Component product not found with id: " + componentId));
-            bundleProduct.getBundledProducts().add(componentProduct);
+        Long bundleId = createBundleDto.bundleProductId();
+        Map<Long, Integer> requested = requestedComponents(createBundleDto);
+        if (bundleGraph.wouldCreateCycle(bundleId, requested.keySet())) {
+            throw new IllegalArgumentException("A bundle cannot contain itself, directly or through another bundle");
         }
 
-        Product savedBundle = productRepository.save(bundleProduct);
-        return convertToDto(savedBundle);
+        return optimisticRetryExecutor.execute(() -> {
+            // Find the product that will become the bundle
+            Product bundleProduct = productRepository.findById(bundleId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Bundle product not found with id: " + bundleId));
+            ProductSnapshot before = ProductSnapshot.of(bundleProduct);
+
+            // All component products in one query
+            Map<Long, Product> componentsById = productRepository.findAllById(requested.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, product -> product));
+            for (Long componentId : requested.keySet()) {
+                if (!componentsById.containsKey(componentId)) {
+                    throw new ResourceNotFoundException("Component product not found with id: " + componentId);
+                }
+            }
+
+            bundleProduct.setBundle(true); // Mark it as a bundle
+
+            // Lines that stay are updated in place, removing and re-adding one would insert the
+            // new row before the old one is deleted
+            Map<Long, BundleComponent> existing = new HashMap<>();
+            for (BundleComponent line : bundleProduct.getComponents()) {
+                existing.put(line.getComponent().getId(), line);
+            }
+            bundleProduct.getComponents().removeIf(line -> !requested.containsKey(line.getComponent().getId()));
+            requested.forEach((componentId, units) -> {
+                BundleComponent line = existing.get(componentId);
+                if (line != null) {
+                    line.setQuantity(units);
+                } else {
+                    bundleProduct.getComponents().add(new BundleComponent(bundleProduct, componentsById.get(componentId), units));
+                }
+            });
+
+            Product savedBundle = productRepository.save(bundleProduct);
+            eventPublisher.publishEvent(new ProductChangedEvent(before, ProductSnapshot.of(savedBundle)));
+            eventPublisher.publishEvent(new BundleCompositionChangedEvent(savedBundle.getId(), Map.copyOf(requested)));
+            return convertToDto(savedBundle);
+        });
+    }
+
+    // Units per component, either from the explicit list or one per occurrence of an id
+    private static Map<Long, Integer> requestedComponents(CreateBundleDto createBundleDto) {
+        Map<Long, Integer> units = new LinkedHashMap<>();
+        if (createBundleDto.components() != null) {
+            for (BundleComponentDto component : createBundleDto.components()) {
+                if (component.productId() == null || component.quantity() <= 0) {
+                    throw new IllegalArgumentException("Every component needs a product id and a positive quantity");
+                }
+                units.merge(component.productId(), component.quantity(), Integer::sum);
+            }
+        } else if (createBundleDto.componentProductIds() != null) {
+            for (Long componentId : createBundleDto.componentProductIds()) {
+                if (componentId == null) {
+                    throw new IllegalArgumentException("Component product ids must not be null");
+                }
+                units.merge(componentId, 1, Integer::sum);
+            }
+        }
+        if (units.isEmpty()) {
+            throw new IllegalArgumentException("A bundle needs at least one component");
+        }
+        return units;
     }
 
     // --- Private mapping methods ---
 
+    // The sellable quantity of a bundle comes from its components' stock
     private ProductDto convertToDto(Product product) {
+        int quantity = product.isBundle()
+                ? bundleGraph.availableQuantity(product.getId()).orElse(product.getQuantity())
+                : product.getQuantity();
+        return convertToDto(product, quantity);
+    }
+
+    // Package-private for the JMH benchmarks in src/jmh/java
+    ProductDto convertToDto(Product product, int quantity) {
         Set<BundledProductDto> bundledDtos = new HashSet<>();
-        if (product.isBundle() && product.getBundledProducts() != null) {
-            bundledDtos = product.getBundledProducts().stream()
-                    .map(p -> new BundledProductDto(p.getId(), p.getName()))
+        if (product.isBundle() && product.getComponents() != null) {
+            bundledDtos = product.getComponents().stream()
+                    .map(line -> new BundledProductDto(line.getComponent().getId(), line.getComponent().getName(),
+                            line.getQuantity()))
                     .collect(Collectors.toSet());
         }
 
@@ -161,14 +352,30 @@ public class ProductService {
                 product.getName(),
                 product.getDescription(),
                 product.getPrice(),
-                product.getQuantity(),
+                quantity,
+                product.getReorderThreshold(),
                 product.getSize(),
                 product.getColor(),
                 product.isBundle(),
-                bundledDtos
+                bundledDtos,
+                product.getVersion()
         );
     }
 
+    // A fresh entity for an insert, so a retried transaction never re-persists an instance that
+    // picked up an id from a rolled back attempt
+    static Product copyOf(Product csvProduct) {
+        Product product = new Product();
+        product.setName(csvProduct.getName());
+        product.setDescription(csvProduct.getDescription());
+        product.setPrice(csvProduct.getPrice());
+        product.setQuantity(csvProduct.getQuantity());
+        product.setReorderThreshold(csvProduct.getReorderThreshold());
+        product.setSize(csvProduct.getSize());
+        product.setColor(csvProduct.getColor());
+        return product;
+    }
+
     private Product convertToEntity(ProductDto productDto) {
         Product product = new Product();
         // No need to set the ID here because it's generated by the database for new products
@@ -178,6 +385,17 @@ public class ProductService {
         product.setQuantity(productDto.quantity());
         product.setSize(productDto.size());
         product.setColor(productDto.color());
+        applyReorderThreshold(product, productDto);
         return product;
     }
+
+    private static void applyReorderThreshold(Product product, ProductDto productDto) {
+        if (productDto.reorderThreshold() == null) {
+            return;
+        }
+        if (productDto.reorderThreshold() < 0) {
+            throw new IllegalArgumentException("reorderThreshold must not be negative");
+        }
+        product.setReorderThreshold(productDto.reorderThreshold());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+
+// Immutable copy of the fields other components derive state from, taken inside the
+// transaction so listeners running after commit never touch a detached entity
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String description,
+        double price,
+        int quantity,
+        int reorderThreshold,
+        String size,
+        String color,
+        boolean isBundle
+) {
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getQuantity(),
+                product.getReorderThreshold(),
+                product.getSize(),
+                product.getColor(),
+                product.isBundle());
+    }
+
+    // The stock of a tracked product is its engine counter, the row lags behind it until the
+    // write-behind flush. Use this for the before side of a change, so listeners adding
+    // after - before see the real difference.
+    public static ProductSnapshot current(Product product, StockReservationEngine stockReservationEngine) {
+        ProductSnapshot snapshot = of(product);
+        return snapshot.withQuantity(stockReservationEngine.available(product.getId()).orElse(product.getQuantity()));
+    }
+
+    public ProductSnapshot withQuantity(int newQuantity) {
+        return new ProductSnapshot(id, name, description, price, newQuantity, reorderThreshold, size, color, isBundle);
+    }
+
+    public ProductSnapshot withPrice(double newPrice) {
+        return new ProductSnapshot(id, name, description, newPrice, quantity, reorderThreshold, size, color, isBundle);
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventorymanagement.ims.product;
+
+import java.util.Locale;
+
+public enum ProductSort {
+    ID,
+    NAME,
+    PRICE,
+    QUANTITY;
+
+    public static ProductSort from(String value) {
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort field: " + value);
+        }
+    }
+
+    // The value of this sort key for a listing row, as stored in a keyset cursor; null for a null name
+    String keyOf(ProductListingRow row) {
+        return switch (this) {
+            case ID -> String.valueOf(row.id());
+            case NAME -> row.name();
+            case PRICE -> String.valueOf(row.price());
+            case QUANTITY -> String.valueOf(row.quantity());
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventorymanagement.ims.product;
+
+// Scalar projection of the fields replenishment needs, read a keyset page at a time
+public record ProductStockRow(
+        Long id,
+        String name,
+        int quantity,
+        boolean isBundle
+) {
+}
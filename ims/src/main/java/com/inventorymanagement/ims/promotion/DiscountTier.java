@@ -1,15 +1,20 @@
 package com.inventorymanagement.ims.promotion;
 
+import com.inventorymanagement.ims.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DISCOUNT_TIERS)
 public class DiscountTier {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "discount_tier_seq")
+    @SequenceGenerator(name = "discount_tier_seq", sequenceName = "discount_tier_seq", allocationSize = 50)
     private Long id;
 
     private int minQuantity;
@@ -0,0 +1,11 @@
+package com.inventorymanagement.ims.promotion;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record PriceQuoteDto(
+        List<PriceQuoteLineDto> lines,
+        BigDecimal listTotal,
+        BigDecimal total
+) {
+}
@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.promotion;
+
+public record PriceQuoteItemDto(
+        Long productId,
+        int quantity
+) {
+}
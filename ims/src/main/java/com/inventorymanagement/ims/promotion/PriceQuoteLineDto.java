@@ -0,0 +1,16 @@
+package com.inventorymanagement.ims.promotion;
+
+import java.math.BigDecimal;
+
+public record PriceQuoteLineDto(
+        Long productId,
+        int quantity,
+        BigDecimal unitPrice,
+        BigDecimal listTotal,
+        BigDecimal lineTotal,
+        BigDecimal discount,
+        // Both null when no promotion beats the list price
+        Long promotionId,
+        PromotionType promotionType
+) {
+}
@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.promotion;
+
+import java.util.List;
+
+public record PriceQuoteRequestDto(
+        List<PriceQuoteItemDto> items
+) {
+}
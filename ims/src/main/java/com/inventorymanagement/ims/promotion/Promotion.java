@@ -1,8 +1,12 @@
 package com.inventorymanagement.ims.promotion;
 
+import com.inventorymanagement.ims.cache.CacheRegions;
 import com.inventorymanagement.ims.product.Product;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,12 +14,18 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "promotions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROMOTIONS)
 public class Promotion {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String description;
 
     @Enumerated(EnumType.STRING)
@@ -32,5 +42,6 @@ public class Promotion {
             cascade = CascadeType.ALL,
             orphanRemoval = true
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROMOTION_TIERS)
     private List<DiscountTier> discountTiers = new ArrayList<>();
 }
\ No newline at end of file
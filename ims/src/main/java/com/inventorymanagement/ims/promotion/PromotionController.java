@@ -1,9 +1,12 @@
 package com.inventorymanagement.ims.promotion;
 
+import com.inventorymanagement.ims.httpcache.ResourceVersions;
+import com.inventorymanagement.ims.httpcache.VersionedCollection;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -13,13 +16,18 @@ import java.util.List;
 public class PromotionController {
 
     private final PromotionService promotionService;
+    private final ResourceVersions resourceVersions;
 
-    public PromotionController(PromotionService promotionService) {
+    public PromotionController(PromotionService promotionService, ResourceVersions resourceVersions) {
         this.promotionService = promotionService;
+        this.resourceVersions = resourceVersions;
     }
 
     @GetMapping
-    public ResponseEntity<List<PromotionDto>> getAllPromotions() {
+    public ResponseEntity<List<PromotionDto>> getAllPromotions(ServletWebRequest request) {
+        if (ResourceVersions.notModified(request, resourceVersions.collectionTag(VersionedCollection.PROMOTIONS))) {
+            return null;
+        }
         return ResponseEntity.ok(promotionService.getAllPromotions());
     }
 
@@ -35,6 +43,11 @@ public class PromotionController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/quote")
+    public ResponseEntity<PriceQuoteDto> quote(@RequestBody PriceQuoteRequestDto request) {
+        return ResponseEntity.ok(promotionService.quote(request));
+    }
+
     @PostMapping("/tiered")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PromotionDto> createTieredPromotion(@RequestBody CreateTieredPromotionDto createDto) {
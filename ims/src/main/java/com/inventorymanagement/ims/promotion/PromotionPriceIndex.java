@@ -0,0 +1,195 @@
+package com.inventorymanagement.ims.promotion;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Every promotion compiled into a per-product entry held in an immutable map, so a quote is a
+// hash lookup plus at most four price calculations per line. Tiers are merged into arrays sorted
+// by minimum quantity, holding the cheapest price reachable at each threshold, so the applicable
+// tier is a binary search. The map is rebuilt and swapped whenever promotions change.
+@Component
+public class PromotionPriceIndex {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PromotionRepository promotionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Map<Long, CompiledPromotions> promotionsByProduct = Map.of();
+
+    public PromotionPriceIndex(PromotionRepository promotionRepository, PlatformTransactionManager transactionManager) {
+        this.promotionRepository = promotionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionsChanged(PromotionsChangedEvent event) {
+        rebuild();
+    }
+
+    // Read in a read-write transaction so it runs on the primary. After a change commits, a replica
+    // may not have it yet, and the index would keep the old prices until the next change.
+    public synchronized void rebuild() {
+        Map<Long, Builder> builders = new HashMap<>();
+        List<Promotion> promotions = transactionTemplate.execute(status -> promotionRepository.findAllWithTiers());
+        for (Promotion promotion : promotions) {
+            if (promotion.getApplicableProduct() == null || promotion.getPromotionType() == null) {
+                continue;
+            }
+            builders.computeIfAbsent(promotion.getApplicableProduct().getId(), id -> new Builder()).add(promotion);
+        }
+
+        Map<Long, CompiledPromotions> compiled = new HashMap<>();
+        builders.forEach((productId, builder) -> compiled.put(productId, builder.build()));
+        promotionsByProduct = Map.copyOf(compiled);
+    }
+
+    // Cheapest total for the line across the product's promotions, or the list price if none is lower
+    public PricedLine price(Long productId, BigDecimal unitPrice, int quantity) {
+        BigDecimal listTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        CompiledPromotions promotions = promotionsByProduct.get(productId);
+        PricedLine best = new PricedLine(listTotal, null, null);
+        if (promotions == null) {
+            return best;
+        }
+
+        if (promotions.percentageId != null) {
+            BigDecimal percentage = promotions.percentage.max(BigDecimal.ZERO).min(HUNDRED);
+            BigDecimal total = listTotal.multiply(HUNDRED.subtract(percentage)).divide(HUNDRED);
+            best = cheaper(best, total, promotions.percentageId, PromotionType.PERCENTAGE);
+        }
+        if (promotions.fixedAmountId != null) {
+            BigDecimal discountedUnit = unitPrice.subtract(promotions.fixedAmount).max(BigDecimal.ZERO);
+            BigDecimal total = discountedUnit.multiply(BigDecimal.valueOf(quantity));
+            best = cheaper(best, total, promotions.fixedAmountId, PromotionType.FIXED_AMOUNT);
+        }
+        if (promotions.bogoId != null) {
+            // Every second item is free
+            BigDecimal total = unitPrice.multiply(BigDecimal.valueOf((quantity + 1) / 2));
+            best = cheaper(best, total, promotions.bogoId, PromotionType.BOGO);
+        }
+
+        int tier = Arrays.binarySearch(promotions.tierMinQuantities, quantity);
+        if (tier < 0) {
+            // Not an exact threshold, take the highest one below the quantity
+            tier = -tier - 2;
+        }
+        if (tier >= 0) {
+            BigDecimal total = promotions.tierPrices[tier].multiply(BigDecimal.valueOf(quantity));
+            best = cheaper(best, total, promotions.tierPromotionIds[tier], PromotionType.TIERED);
+        }
+        return best;
+    }
+
+    private static PricedLine cheaper(PricedLine best, BigDecimal total, Long promotionId, PromotionType type) {
+        return total.compareTo(best.total()) < 0 ? new PricedLine(total, promotionId, type) : best;
+    }
+
+    public record PricedLine(
+            BigDecimal total,
+            Long promotionId,
+            PromotionType promotionType
+    ) {
+    }
+
+    private record CompiledPromotions(
+            Long percentageId,
+            BigDecimal percentage,
+            Long fixedAmountId,
+            BigDecimal fixedAmount,
+            Long bogoId,
+            int[] tierMinQuantities,
+            BigDecimal[] tierPrices,
+            Long[] tierPromotionIds
+    ) {
+    }
+
+    private record TierEntry(int minQuantity, BigDecimal pricePerItem, Long promotionId) {
+    }
+
+    // Only the strongest promotion of each flat type can ever win, so the others are dropped here
+    private static class Builder {
+        private Long percentageId;
+        private BigDecimal percentage;
+        private Long fixedAmountId;
+        private BigDecimal fixedAmount;
+        private Long bogoId;
+        private final List<TierEntry> tiers = new ArrayList<>();
+
+        void add(Promotion promotion) {
+            BigDecimal value = promotion.getDiscountValue();
+            switch (promotion.getPromotionType()) {
+                case PERCENTAGE -> {
+                    if (value != null && (percentage == null || value.compareTo(percentage) > 0)) {
+                        percentageId = promotion.getId();
+                        percentage = value;
+                    }
+                }
+                case FIXED_AMOUNT -> {
+                    if (value != null && (fixedAmount == null || value.compareTo(fixedAmount) > 0)) {
+                        fixedAmountId = promotion.getId();
+                        fixedAmount = value;
+                    }
+                }
+                case BOGO -> {
+                    if (bogoId == null) {
+                        bogoId = promotion.getId();
+                    }
+                }
+                case TIERED -> {
+                    for (DiscountTier tier : promotion.getDiscountTiers()) {
+                        if (tier.getPricePerItem() != null) {
+                            tiers.add(new TierEntry(tier.getMinQuantity(), tier.getPricePerItem(), promotion.getId()));
+                        }
+                    }
+                }
+            }
+        }
+
+        CompiledPromotions build() {
+            tiers.sort(Comparator.comparingInt(TierEntry::minQuantity));
+
+            // A quantity qualifies for every tier at or below it, so each threshold carries the
+            // cheapest price seen so far and equal thresholds collapse into one slot
+            int[] minQuantities = new int[tiers.size()];
+            BigDecimal[] prices = new BigDecimal[tiers.size()];
+            Long[] promotionIds = new Long[tiers.size()];
+            int size = 0;
+            BigDecimal bestPrice = null;
+            Long bestPromotionId = null;
+            for (TierEntry tier : tiers) {
+                if (bestPrice == null || tier.pricePerItem().compareTo(bestPrice) < 0) {
+                    bestPrice = tier.pricePerItem();
+                    bestPromotionId = tier.promotionId();
+                }
+                if (size > 0 && minQuantities[size - 1] == tier.minQuantity()) {
+                    size--;
+                }
+                minQuantities[size] = tier.minQuantity();
+                prices[size] = bestPrice;
+                promotionIds[size] = bestPromotionId;
+                size++;
+            }
+
+            return new CompiledPromotions(percentageId, percentage, fixedAmountId, fixedAmount, bogoId,
+                    Arrays.copyOf(minQuantities, size), Arrays.copyOf(prices, size), Arrays.copyOf(promotionIds, size));
+        }
+    }
+}
@@ -1,8 +1,24 @@
 package com.inventorymanagement.ims.promotion;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PromotionRepository extends JpaRepository<Promotion, Long> {
-}
\ No newline at end of file
+
+    // The promotion listing, served from the query cache until promotions change
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Promotion> findAll();
+
+    // Loads every promotion with its product and tiers in one query, used to build the price index
+    @EntityGraph(attributePaths = {"applicableProduct", "discountTiers"})
+    @Query("SELECT p FROM Promotion p")
+    List<Promotion> findAllWithTiers();
+}
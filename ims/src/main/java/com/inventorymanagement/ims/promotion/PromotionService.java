@@ -3,12 +3,19 @@ package com.inventorymanagement.ims.promotion;
 import com.inventorymanagement.ims.exception.ResourceNotFoundException;
 import com.inventorymanagement.ims.product.Product;
 import com.inventorymanagement.ims.product.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,16 +23,23 @@ public class PromotionService {
 
     private final PromotionRepository promotionRepository;
     private final ProductRepository productRepository;
+    private final PromotionPriceIndex promotionPriceIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PromotionService(PromotionRepository promotionRepository, ProductRepository productRepository) {
+    public PromotionService(PromotionRepository promotionRepository, ProductRepository productRepository,
+                            PromotionPriceIndex promotionPriceIndex, ApplicationEventPublisher eventPublisher) {
         this.promotionRepository = promotionRepository;
         this.productRepository = productRepository;
+        this.promotionPriceIndex = promotionPriceIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<PromotionDto> getAllPromotions() {
         return promotionRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public PromotionDto createPromotion(CreatePromotionDto createDto) {
         Product product = productRepository.findById(createDto.applicableProductId())
@@ -38,15 +52,18 @@ public class PromotionService {
         promotion.setApplicableProduct(product);
 
         Promotion savedPromotion = promotionRepository.save(promotion);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(savedPromotion.getId()));
         return convertToDto(savedPromotion);
     }
 
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public void deletePromotion(Long id) {
         if (!promotionRepository.existsById(id)) {
             throw new ResourceNotFoundException("Promotion not found with id: " + id);
         }
         promotionRepository.deleteById(id);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(id));
     }
 
     @Transactional
@@ -71,9 +88,64 @@ public class PromotionService {
         promotion.setDiscountTiers(tiers);
 
         Promotion savedPromotion = promotionRepository.save(promotion);
+        eventPublisher.publishEvent(new PromotionsChangedEvent(savedPromotion.getId()));
         return convertToDto(savedPromotion);
     }
 
+    // Prices the cart against the in-memory promotion index. The only database access is a
+    // single query for the list prices of the products in the cart.
+    @Transactional(readOnly = true)
+    public PriceQuoteDto quote(PriceQuoteRequestDto request) {
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new IllegalArgumentException("Quote must contain at least one item");
+        }
+        Set<Long> productIds = new HashSet<>();
+        for (PriceQuoteItemDto item : request.items()) {
+            if (item.productId() == null) {
+                throw new IllegalArgumentException("Every quote item needs a productId");
+            }
+            if (item.quantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product: " + item.productId());
+            }
+            productIds.add(item.productId());
+        }
+
+        Map<Long, Product> productsById = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<PriceQuoteLineDto> lines = new ArrayList<>(request.items().size());
+        BigDecimal listTotal = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        for (PriceQuoteItemDto item : request.items()) {
+            Product product = productsById.get(item.productId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + item.productId());
+            }
+
+            BigDecimal unitPrice = BigDecimal.valueOf(product.getPrice());
+            BigDecimal lineListTotal = money(unitPrice.multiply(BigDecimal.valueOf(item.quantity())));
+            PromotionPriceIndex.PricedLine priced = promotionPriceIndex.price(product.getId(), unitPrice, item.quantity());
+            BigDecimal lineTotal = money(priced.total());
+
+            lines.add(new PriceQuoteLineDto(
+                    product.getId(),
+                    item.quantity(),
+                    money(unitPrice),
+                    lineListTotal,
+                    lineTotal,
+                    lineListTotal.subtract(lineTotal),
+                    priced.promotionId(),
+                    priced.promotionType()));
+            listTotal = listTotal.add(lineListTotal);
+            total = total.add(lineTotal);
+        }
+        return new PriceQuoteDto(lines, listTotal, total);
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
     private PromotionDto convertToDto(Promotion promotion) {
         SimpleProductDto productDto = new SimpleProductDto(
                 promotion.getApplicableProduct().getId(),
@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.promotion;
+
+// Published when a promotion is created or deleted so the price index can be rebuilt
+public record PromotionsChangedEvent(
+        Long promotionId
+) {
+}
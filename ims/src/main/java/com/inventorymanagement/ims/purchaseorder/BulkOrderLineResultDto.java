@@ -0,0 +1,16 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+public record BulkOrderLineResultDto(
+        int index,
+        boolean success,
+        Long orderId,
+        String error
+) {
+    static BulkOrderLineResultDto succeeded(int index, Long orderId) {
+        return new BulkOrderLineResultDto(index, true, orderId, null);
+    }
+
+    static BulkOrderLineResultDto failed(int index, String error) {
+        return new BulkOrderLineResultDto(index, false, null, error);
+    }
+}
@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+// One order of a bulk upload and its zero based position in the stream
+record BulkOrderRequest(
+        int index,
+        CreatePurchaseOrderDto order
+) {
+}
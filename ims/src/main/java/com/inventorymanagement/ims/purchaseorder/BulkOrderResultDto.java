@@ -0,0 +1,16 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import java.util.List;
+
+public record BulkOrderResultDto(
+        int received,
+        int created,
+        int failed,
+        long elapsedMillis,
+        List<BulkOrderLineResultDto> orders
+) {
+    static BulkOrderResultDto from(List<BulkOrderLineResultDto> orders, long elapsedNanos) {
+        int created = (int) orders.stream().filter(BulkOrderLineResultDto::success).count();
+        return new BulkOrderResultDto(orders.size(), created, orders.size() - created, elapsedNanos / 1_000_000, orders);
+    }
+}
@@ -2,7 +2,12 @@ package com.inventorymanagement.ims.purchaseorder;
 
 import java.util.List;
 
+// locationId is optional; stock is taken from that location first and then from the others
 public record CreatePurchaseOrderDto(
-        List<CreatePurchaseOrderItemDto> items
+        List<CreatePurchaseOrderItemDto> items,
+        Long locationId
 ) {
-}
\ No newline at end of file
+    public CreatePurchaseOrderDto(List<CreatePurchaseOrderItemDto> items) {
+        this(items, null);
+    }
+}
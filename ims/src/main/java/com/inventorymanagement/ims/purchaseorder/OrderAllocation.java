@@ -0,0 +1,31 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Units of one product an order takes from one stock location, written with the order so the
+// pick list survives restarts. Product and location are plain ids, like the stock rows they drew on.
+@Data
+@Entity
+@Table(name = "order_allocations", indexes = {
+        @Index(name = "idx_order_allocations_order", columnList = "purchase_order_id")
+})
+public class OrderAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_allocation_seq")
+    @SequenceGenerator(name = "order_allocation_seq", sequenceName = "order_allocation_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "purchase_order_id", nullable = false)
+    private PurchaseOrder purchaseOrder;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long locationId;
+
+    private int quantity;
+}
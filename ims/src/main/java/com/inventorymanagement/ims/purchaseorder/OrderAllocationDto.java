@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+public record OrderAllocationDto(
+        Long productId,
+        Long locationId,
+        int quantity
+) {
+}
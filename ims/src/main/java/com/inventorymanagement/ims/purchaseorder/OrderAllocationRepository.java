@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderAllocationRepository extends JpaRepository<OrderAllocation, Long> {
+
+    List<OrderAllocation> findByPurchaseOrderIdOrderByIdAsc(Long purchaseOrderId);
+}
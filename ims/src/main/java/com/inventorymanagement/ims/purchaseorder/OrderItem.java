@@ -3,16 +3,22 @@ package com.inventorymanagement.ims.purchaseorder;
 import com.inventorymanagement.ims.product.Product;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @Entity
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     private int quantity;
 
+    // Price of the product when the order was placed, later price changes do not rewrite history
+    @ColumnDefault("0")
+    private double unitPrice;
+
     @ManyToOne
     @JoinColumn(name = "product_id")
     private Product product;
@@ -1,8 +1,27 @@
 package com.inventorymanagement.ims.purchaseorder;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    // Where a keyset pass over the lines of orders placed since from can start
+    @Query("SELECT MIN(i.id) FROM OrderItem i WHERE i.purchaseOrder.orderDate >= :from")
+    Long findFirstIdOrderedSince(@Param("from") LocalDateTime from);
+
+    // Keyset page of the lines of orders placed since from, cancelled orders excluded
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.inventorymanagement.ims.purchaseorder.OrderLineRow(i.id, i.product.id, i.quantity) "
+            + "FROM OrderItem i JOIN i.purchaseOrder o WHERE i.id > :after AND o.orderDate >= :from "
+            + "AND o.status <> com.inventorymanagement.ims.purchaseorder.OrderStatus.CANCELLED ORDER BY i.id")
+    List<OrderLineRow> findLinesAfter(@Param("after") Long after, @Param("from") LocalDateTime from, Limit limit);
+}
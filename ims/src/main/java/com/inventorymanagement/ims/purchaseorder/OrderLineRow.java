@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+// Scalar projection of an order line, used to stream order history without loading entities
+public record OrderLineRow(
+        Long id,
+        Long productId,
+        int quantity
+) {
+}
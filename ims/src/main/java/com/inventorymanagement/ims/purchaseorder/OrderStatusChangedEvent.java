@@ -0,0 +1,9 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+// previousStatus is null when the order has just been placed
+public record OrderStatusChangedEvent(
+        Long orderId,
+        OrderStatus previousStatus,
+        OrderStatus newStatus
+) {
+}
@@ -0,0 +1,120 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockReservation;
+import com.inventorymanagement.ims.location.LocationAllocation;
+import com.inventorymanagement.ims.product.BundleGraph;
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductChangeCause;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// A validated, not yet persisted order together with the stock it needs from the reservation
+// engine. Bundles are expanded, nested bundles included, to the stocked products they consume,
+// each multiplied by its units per bundle.
+record PreparedOrder(
+        PurchaseOrder purchaseOrder,
+        Map<Long, Integer> demand,
+        Map<Long, Product> stockedProducts
+) {
+    // The ordered products plus the stocked components of any bundles among them, to load in one query
+    static Set<Long> productIdsToLoad(Collection<CreatePurchaseOrderDto> orders, BundleGraph bundleGraph) {
+        Set<Long> orderedIds = orders.stream()
+                .filter(order -> order.items() != null)
+                .flatMap(order -> order.items().stream())
+                .map(CreatePurchaseOrderItemDto::productId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return bundleGraph.withStockedComponents(orderedIds);
+    }
+
+    static PreparedOrder of(CreatePurchaseOrderDto createDto, Map<Long, Product> productsById, BundleGraph bundleGraph) {
+        if (createDto.items() == null || createDto.items().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+
+        PurchaseOrder purchaseOrder = new PurchaseOrder();
+        purchaseOrder.setOrderDate(LocalDateTime.now());
+        purchaseOrder.setStatus(OrderStatus.PENDING);
+
+        Map<Long, Integer> demand = new HashMap<>();
+        Map<Long, Product> stockedProducts = new HashMap<>();
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (CreatePurchaseOrderItemDto itemDto : createDto.items()) {
+            Product product = itemDto.productId() == null ? null : productsById.get(itemDto.productId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + itemDto.productId());
+            }
+            if (itemDto.quantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product: " + product.getName());
+            }
+
+            if (product.isBundle()) {
+                for (Map.Entry<Long, Integer> component : bundleGraph.expand(product.getId()).entrySet()) {
+                    Product stocked = productsById.get(component.getKey());
+                    if (stocked == null) {
+                        throw new ResourceNotFoundException("Component product not found with id: " + component.getKey());
+                    }
+                    long units = (long) itemDto.quantity() * component.getValue();
+                    if (units > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Quantity too large for bundle: " + product.getName());
+                    }
+                    demand.merge(stocked.getId(), (int) units, Integer::sum);
+                    stockedProducts.put(stocked.getId(), stocked);
+                }
+            } else {
+                demand.merge(product.getId(), itemDto.quantity(), Integer::sum);
+                stockedProducts.put(product.getId(), product);
+            }
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProduct(product);
+            orderItem.setQuantity(itemDto.quantity());
+            orderItem.setUnitPrice(product.getPrice());
+            orderItem.setPurchaseOrder(purchaseOrder); // Link item to the order
+            orderItems.add(orderItem);
+        }
+        purchaseOrder.setItems(orderItems);
+
+        return new PreparedOrder(purchaseOrder, demand, stockedProducts);
+    }
+
+    int initialStock(Long productId) {
+        return stockedProducts.get(productId).getQuantity();
+    }
+
+    // One row per product and location the order's stock was taken from
+    List<OrderAllocation> allocations(LocationAllocation allocation) {
+        List<OrderAllocation> allocations = new ArrayList<>(allocation.lines().size());
+        for (LocationAllocation.Line line : allocation.lines()) {
+            OrderAllocation orderAllocation = new OrderAllocation();
+            orderAllocation.setPurchaseOrder(purchaseOrder);
+            orderAllocation.setProductId(line.productId());
+            orderAllocation.setLocationId(line.locationId());
+            orderAllocation.setQuantity(line.quantity());
+            allocations.add(orderAllocation);
+        }
+        return allocations;
+    }
+
+    // Stock changes made by the reservation, using the counter values the reservation itself saw
+    List<ProductChangedEvent> stockChanges(StockReservation reservation) {
+        List<ProductChangedEvent> events = new ArrayList<>(reservation.remaining().size());
+        reservation.remaining().forEach((productId, left) -> {
+            ProductSnapshot after = ProductSnapshot.of(stockedProducts.get(productId)).withQuantity(left);
+            ProductSnapshot before = after.withQuantity(left + reservation.quantities().get(productId));
+            events.add(new ProductChangedEvent(before, after, ProductChangeCause.ORDER));
+        });
+        return events;
+    }
+}
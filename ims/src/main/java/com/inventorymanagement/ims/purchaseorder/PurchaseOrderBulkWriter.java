@@ -0,0 +1,113 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockReservation;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.location.LocationAllocation;
+import com.inventorymanagement.ims.location.LocationStockLedger;
+import com.inventorymanagement.ims.product.BundleGraph;
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Writes one chunk of a bulk order upload per transaction. The products of every order in the
+// chunk are loaded with a single IN query. Orders that fail validation or cannot be reserved are
+// reported and left out, the rest are inserted together and flushed as one JDBC batch.
+@Component
+public class PurchaseOrderBulkWriter {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final StockReservationEngine stockReservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BundleGraph bundleGraph;
+    private final LocationStockLedger locationStockLedger;
+
+    public PurchaseOrderBulkWriter(ProductRepository productRepository, EntityManager entityManager,
+                                   StockReservationEngine stockReservationEngine,
+                                   ApplicationEventPublisher eventPublisher, BundleGraph bundleGraph,
+                                   LocationStockLedger locationStockLedger) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.stockReservationEngine = stockReservationEngine;
+        this.eventPublisher = eventPublisher;
+        this.bundleGraph = bundleGraph;
+        this.locationStockLedger = locationStockLedger;
+    }
+
+    @Transactional
+    public List<BulkOrderLineResultDto> writeChunk(List<BulkOrderRequest> requests) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(requests.size(), 1));
+
+        Set<Long> productIds = PreparedOrder.productIdsToLoad(
+                requests.stream().map(BulkOrderRequest::order).toList(), bundleGraph);
+        Map<Long, Product> productsById = productIds.isEmpty() ? Map.of() : productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<BulkOrderLineResultDto> results = new ArrayList<>(requests.size());
+        Map<Integer, AcceptedOrder> accepted = new LinkedHashMap<>();
+        for (BulkOrderRequest request : requests) {
+            StockReservation reservation = null;
+            LocationAllocation allocation = null;
+            PreparedOrder prepared = null;
+            List<OrderAllocation> allocationRows = List.of();
+            try {
+                prepared = PreparedOrder.of(request.order(), productsById, bundleGraph);
+                locationStockLedger.requireLocation(request.order().locationId());
+                reservation = stockReservationEngine.reserve(prepared.demand(), prepared::initialStock);
+                allocation = locationStockLedger.allocate(reservation, request.order().locationId());
+
+                allocationRows = prepared.allocations(allocation);
+                entityManager.persist(prepared.purchaseOrder());
+                allocationRows.forEach(entityManager::persist);
+            } catch (ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
+                // Covers InsufficientStockException. Whatever this order had taken is given back
+                // now, the chunk itself still commits.
+                if (allocation != null) {
+                    locationStockLedger.release(allocation);
+                }
+                if (reservation != null) {
+                    stockReservationEngine.release(reservation);
+                }
+                if (prepared != null && entityManager.contains(prepared.purchaseOrder())) {
+                    allocationRows.stream().filter(entityManager::contains).forEach(entityManager::detach);
+                    entityManager.detach(prepared.purchaseOrder());
+                }
+                results.add(BulkOrderLineResultDto.failed(request.index(), e.getMessage()));
+                continue;
+            }
+            // Only accepted orders hand their stock to the transaction, so a rollback of the
+            // chunk and a failed line never both release it
+            stockReservationEngine.releaseOnRollback(reservation);
+            locationStockLedger.releaseOnRollback(allocation);
+            accepted.put(request.index(), new AcceptedOrder(prepared, reservation));
+        }
+
+        // Listeners failing from here on fail the chunk, which releases the stock on rollback
+        accepted.values().forEach(order -> order.prepared().stockChanges(order.reservation()).forEach(eventPublisher::publishEvent));
+        entityManager.flush();
+        accepted.forEach((index, order) -> {
+            PurchaseOrder purchaseOrder = order.prepared().purchaseOrder();
+            results.add(BulkOrderLineResultDto.succeeded(index, purchaseOrder.getId()));
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(purchaseOrder.getId(), null, purchaseOrder.getStatus()));
+        });
+        entityManager.clear();
+
+        return results;
+    }
+
+    private record AcceptedOrder(PreparedOrder prepared, StockReservation reservation) {
+    }
+}
@@ -1,9 +1,16 @@
 package com.inventorymanagement.ims.purchaseorder;
 
+import com.inventorymanagement.ims.httpcache.ResourceVersions;
+import com.inventorymanagement.ims.httpcache.VersionedCollection;
+import org.springframework.format.annotation.DateTimeFormat;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin
@@ -12,9 +19,11 @@ import java.util.List;
 public class PurchaseOrderController {
 
     private final PurchaseOrderService purchaseOrderService;
+    private final ResourceVersions resourceVersions;
 
-    public PurchaseOrderController(PurchaseOrderService purchaseOrderService) {
+    public PurchaseOrderController(PurchaseOrderService purchaseOrderService, ResourceVersions resourceVersions) {
         this.purchaseOrderService = purchaseOrderService;
+        this.resourceVersions = resourceVersions;
     }
 
     @PostMapping
@@ -23,8 +32,22 @@ public class PurchaseOrderController {
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
 
+    // Accepts a JSON array or NDJSON (application/x-ndjson) body of CreatePurchaseOrderDto
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResultDto> createPurchaseOrdersInBulk(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "500") int chunkSize) throws IOException {
+        return ResponseEntity.ok(purchaseOrderService.createOrdersInBulk(request.getInputStream(), chunkSize));
+    }
+
     // TODO: We can add endpoints to get all orders or a single order later
 
+    // Which locations the order's stock was taken from
+    @GetMapping("/{id}/allocations")
+    public ResponseEntity<List<OrderAllocationDto>> getAllocations(@PathVariable Long id) {
+        return ResponseEntity.ok(purchaseOrderService.getAllocations(id));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<PurchaseOrderDto> updateOrderStatus(@PathVariable Long id, @RequestBody String status) {
         // A simple way to convert the string from the request to our Enum
@@ -33,7 +56,17 @@ public class PurchaseOrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PurchaseOrderDto>> getAllPurchaseOrders() {
-        return ResponseEntity.ok(purchaseOrderService.getAllOrders());
+    public ResponseEntity<PurchaseOrderPageDto> getPurchaseOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            ServletWebRequest request) {
+        if (ResourceVersions.notModified(request, resourceVersions.collectionTag(VersionedCollection.PURCHASE_ORDERS))) {
+            return null;
+        }
+        OrderStatus orderStatus = status == null ? null : OrderStatus.valueOf(status.toUpperCase());
+        return ResponseEntity.ok(purchaseOrderService.getOrders(orderStatus, from, to, page, size));
     }
 }
\ No newline at end of file
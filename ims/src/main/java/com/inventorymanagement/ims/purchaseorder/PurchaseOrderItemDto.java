@@ -3,6 +3,7 @@ package com.inventorymanagement.ims.purchaseorder;
 public record PurchaseOrderItemDto(
         Long id,
         String productName,
-        int quantity
+        int quantity,
+        double unitPrice
 ) {
 }
\ No newline at end of file
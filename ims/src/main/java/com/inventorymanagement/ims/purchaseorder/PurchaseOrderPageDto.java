@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import java.util.List;
+
+public record PurchaseOrderPageDto(
+        List<PurchaseOrderDto> items,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages
+) {
+}
\ No newline at end of file
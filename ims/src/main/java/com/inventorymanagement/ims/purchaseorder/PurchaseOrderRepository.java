@@ -1,10 +1,37 @@
 package com.inventorymanagement.ims.purchaseorder;
 
 import org.hibernate.query.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
     long countByStatus(OrderStatus status);
+
+    // Pages over ids only, so the collection fetch below is never paginated in memory
+    @Query(value = "SELECT o.id FROM PurchaseOrder o WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to)",
+            countQuery = "SELECT COUNT(o) FROM PurchaseOrder o WHERE (:status IS NULL OR o.status = :status) " +
+                    "AND (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to)")
+    Page<Long> findIdsByFilter(@Param("status") OrderStatus status,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               Pageable pageable);
+
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    @Query("SELECT o FROM PurchaseOrder o WHERE o.id IN :ids")
+    List<PurchaseOrder> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"items", "items.product"})
+    Optional<PurchaseOrder> findWithItemsById(Long id);
 }
\ No newline at end of file
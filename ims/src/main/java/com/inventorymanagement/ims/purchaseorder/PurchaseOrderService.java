@@ -1,15 +1,37 @@
 package com.inventorymanagement.ims.purchaseorder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
 import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import com.inventorymanagement.ims.inventory.StockReservation;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.location.LocationAllocation;
+import com.inventorymanagement.ims.location.LocationStockLedger;
+import com.inventorymanagement.ims.product.BundleGraph;
 import com.inventorymanagement.ims.product.Product;
 import com.inventorymanagement.ims.product.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,67 +39,210 @@ public class PurchaseOrderService {
 
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final ProductRepository productRepository;
+    private final StockReservationEngine stockReservationEngine;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PurchaseOrderBulkWriter bulkWriter;
+    private final ObjectMapper objectMapper;
+    private final BundleGraph bundleGraph;
+    private final LocationStockLedger locationStockLedger;
+    private final OrderAllocationRepository orderAllocationRepository;
+    private final Timer lookupTimer;
+    private final Timer stockTimer;
+    private final Timer saveTimer;
 
-    public PurchaseOrderService(PurchaseOrderRepository purchaseOrderRepository, ProductRepository productRepository) {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort ORDER_LISTING_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+
+    public PurchaseOrderService(PurchaseOrderRepository purchaseOrderRepository, ProductRepository productRepository,
+                                StockReservationEngine stockReservationEngine,
+                                OptimisticRetryExecutor optimisticRetryExecutor,
+                                ApplicationEventPublisher eventPublisher, PurchaseOrderBulkWriter bulkWriter,
+                                ObjectMapper objectMapper, BundleGraph bundleGraph,
+                                LocationStockLedger locationStockLedger,
+                                OrderAllocationRepository orderAllocationRepository, MeterRegistry meterRegistry) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.productRepository = productRepository;
+        this.stockReservationEngine = stockReservationEngine;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.eventPublisher = eventPublisher;
+        this.bulkWriter = bulkWriter;
+        this.objectMapper = objectMapper;
+        this.bundleGraph = bundleGraph;
+        this.locationStockLedger = locationStockLedger;
+        this.orderAllocationRepository = orderAllocationRepository;
+        this.lookupTimer = orderPhaseTimer(meterRegistry, "lookup");
+        this.stockTimer = orderPhaseTimer(meterRegistry, "stock");
+        this.saveTimer = orderPhaseTimer(meterRegistry, "save");
+    }
+
+    // Order creation split into loading and validating the products, reserving stock and the insert
+    private static Timer orderPhaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("ims.orders.create.phase")
+                .description("Order creation latency by phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
-    @Transactional
     public PurchaseOrderDto createOrder(CreatePurchaseOrderDto createDto) {
-        PurchaseOrder purchaseOrder = new PurchaseOrder();
-        purchaseOrder.setOrderDate(LocalDateTime.now());
-        purchaseOrder.setStatus(OrderStatus.PENDING);
-
-        List<OrderItem> orderItems = new ArrayList<>();
-        for (CreatePurchaseOrderItemDto itemDto : createDto.items()) {
-            Product product = productRepository.findById(itemDto.productId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemDto.productId()));
-
-            if (product.isBundle()) {
-                for (Product component : product.getBundledProducts()) {
-                    if (component.getQuantity() < itemDto.quantity()) {
-                        throw new IllegalStateException("Not enough stock for product: " + product.getName());
+        return optimisticRetryExecutor.execute(() -> placeOrder(createDto));
+    }
+
+    private PurchaseOrderDto placeOrder(CreatePurchaseOrderDto createDto) {
+        // Load every product on the order, and the stocked components of its bundles, in one query
+        PreparedOrder prepared = lookupTimer.record(() -> {
+            Set<Long> productIds = PreparedOrder.productIdsToLoad(List.of(createDto), bundleGraph);
+            Map<Long, Product> productsById = productIds.isEmpty() ? Map.of() : productRepository.findAllById(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            return PreparedOrder.of(createDto, productsById, bundleGraph);
+        });
+        locationStockLedger.requireLocation(createDto.locationId());
+
+        // Stock is taken from the reservation engine rather than decremented on the entities, so
+        // concurrent orders neither oversell nor wait on each other's row locks
+        StockReservation reservation = stockTimer.record(() -> stockReservationEngine.reserve(prepared.demand(), prepared::initialStock));
+        stockReservationEngine.releaseOnRollback(reservation);
+        // Then split across locations; the aggregate counters alone decide whether the order fits
+        LocationAllocation allocation = locationStockLedger.allocate(reservation, createDto.locationId());
+        locationStockLedger.releaseOnRollback(allocation);
+
+        PurchaseOrder savedOrder = saveTimer.record(() -> {
+            PurchaseOrder saved = purchaseOrderRepository.save(prepared.purchaseOrder());
+            orderAllocationRepository.saveAll(prepared.allocations(allocation));
+            // Sequence ids make save a plain persist, the inserts would otherwise run at commit,
+            // outside the timer
+            purchaseOrderRepository.flush();
+            return saved;
+        });
+
+        // Listeners only see these once the order commits; a rolled back order releases its stock
+        prepared.stockChanges(reservation).forEach(eventPublisher::publishEvent);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(savedOrder.getId(), null, savedOrder.getStatus()));
+        return convertToDto(savedOrder);
+    }
+
+    // Reads a JSON array or newline delimited JSON of orders one element at a time and writes them
+    // in chunks, each in its own transaction. Every order gets its own result, so a bad order is
+    // reported without affecting the rest of its chunk or any other chunk.
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkOrderResultDto createOrdersInBulk(InputStream body, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+
+        long start = System.nanoTime();
+        List<BulkOrderLineResultDto> results = new ArrayList<>();
+        List<BulkOrderRequest> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        // A top level array is unwrapped by the iterator, otherwise root values are read in sequence
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (true) {
+                JsonNode node;
+                try {
+                    if (!nodes.hasNextValue()) {
+                        break;
                     }
-                    component.setQuantity(component.getQuantity() - itemDto.quantity());
+                    node = nodes.nextValue();
+                } catch (IOException e) {
+                    // The stream cannot be resynchronised after malformed JSON, so reading stops here
+                    results.add(BulkOrderLineResultDto.failed(index, "Malformed JSON, remaining input ignored: " + e.getMessage()));
+                    break;
+                }
+
+                try {
+                    chunk.add(new BulkOrderRequest(index, objectMapper.treeToValue(node, CreatePurchaseOrderDto.class)));
+                } catch (JsonProcessingException e) {
+                    results.add(BulkOrderLineResultDto.failed(index, "Invalid order: " + e.getOriginalMessage()));
                 }
-            } else {
+                index++;
 
-                if (product.getQuantity() < itemDto.quantity()) {
-                    throw new IllegalStateException("Not enough stock for product : " + product.getName());
+                if (chunk.size() == chunkSize) {
+                    results.addAll(writeBulkChunk(chunk));
+                    chunk = new ArrayList<>(chunkSize);
                 }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read bulk orders: " + e.getMessage(), e);
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeBulkChunk(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(BulkOrderLineResultDto::index));
+        return BulkOrderResultDto.from(results, System.nanoTime() - start);
+    }
 
-                product.setQuantity(product.getQuantity() - itemDto.quantity());
+    private List<BulkOrderLineResultDto> writeBulkChunk(List<BulkOrderRequest> chunk) {
+        try {
+            return bulkWriter.writeChunk(chunk);
+        } catch (RuntimeException chunkFailure) {
+            // The chunk failed at the database as a whole; place its orders one by one so only
+            // the offending orders are reported as failed
+            List<BulkOrderLineResultDto> results = new ArrayList<>(chunk.size());
+            for (BulkOrderRequest request : chunk) {
+                try {
+                    PurchaseOrderDto created = optimisticRetryExecutor.execute(() -> placeOrder(request.order()));
+                    results.add(BulkOrderLineResultDto.succeeded(request.index(), created.id()));
+                } catch (RuntimeException e) {
+                    results.add(BulkOrderLineResultDto.failed(request.index(), e.getMessage()));
+                }
             }
+            return results;
+        }
+    }
 
+    // One query for the page of ids (plus a count when needed) and one fetch join for the orders,
+    // their items and the item products, regardless of page size
+    @Transactional(readOnly = true)
+    public PurchaseOrderPageDto getOrders(OrderStatus status, LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
-            OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(product);
-            orderItem.setQuantity(itemDto.quantity());
-            orderItem.setPurchaseOrder(purchaseOrder); // Link item to the order
-            orderItems.add(orderItem);
+        Page<Long> idPage = purchaseOrderRepository.findIdsByFilter(status, from, to,
+                PageRequest.of(page, size, ORDER_LISTING_SORT));
+
+        List<PurchaseOrderDto> orders = new ArrayList<>();
+        if (idPage.hasContent()) {
+            Map<Long, PurchaseOrder> ordersById = purchaseOrderRepository.findWithItemsByIdIn(idPage.getContent())
+                    .stream()
+                    .collect(Collectors.toMap(PurchaseOrder::getId, Function.identity(), (a, b) -> a));
+            for (Long id : idPage.getContent()) {
+                orders.add(convertToDto(ordersById.get(id)));
+            }
         }
 
-        purchaseOrder.setItems(orderItems);
-        PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
-        return convertToDto(savedOrder);
+        return new PurchaseOrderPageDto(orders, page, size, idPage.getTotalElements(), idPage.getTotalPages());
     }
 
-    public List<PurchaseOrderDto> getAllOrders() {
-        return purchaseOrderRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<OrderAllocationDto> getAllocations(Long orderId) {
+        if (!purchaseOrderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        return orderAllocationRepository.findByPurchaseOrderIdOrderByIdAsc(orderId).stream()
+                .map(allocation -> new OrderAllocationDto(allocation.getProductId(), allocation.getLocationId(),
+                        allocation.getQuantity()))
+                .toList();
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     public PurchaseOrderDto updateOrderStatus(Long orderId, OrderStatus status) {
-        PurchaseOrder order = purchaseOrderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-        order.setStatus(status);
-        PurchaseOrder updatedOrder = purchaseOrderRepository.save(order);
-        return convertToDto(updatedOrder);
+        return optimisticRetryExecutor.execute(() -> {
+            PurchaseOrder order = purchaseOrderRepository.findWithItemsById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+            OrderStatus previousStatus = order.getStatus();
+            order.setStatus(status);
+            PurchaseOrder updatedOrder = purchaseOrderRepository.save(order);
+            if (previousStatus != status) {
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, previousStatus, status));
+            }
+            return convertToDto(updatedOrder);
+        });
     }
 
     // --- Private DTO Methods ---
@@ -86,7 +251,8 @@ public class PurchaseOrderService {
                 .map(item -> new PurchaseOrderItemDto(
                         item.getId(),
                         item.getProduct().getName(),
-                        item.getQuantity()))
+                        item.getQuantity(),
+                        item.getUnitPrice()))
                 .collect(Collectors.toList());
 
         return new PurchaseOrderDto(
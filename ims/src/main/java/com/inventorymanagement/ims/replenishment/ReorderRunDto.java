@@ -0,0 +1,23 @@
+package com.inventorymanagement.ims.replenishment;
+
+import java.time.Instant;
+import java.util.List;
+
+// Suggestions are ordered by days of cover, the most urgent first
+public record ReorderRunDto(
+        Instant startedAt,
+        long elapsedMillis,
+        int lookbackDays,
+        long orderLines,
+        int productsAnalysed,
+        int totalSuggestions,
+        List<ReorderSuggestionDto> suggestions
+) {
+    ReorderRunDto limitedTo(int limit) {
+        if (suggestions.size() <= limit) {
+            return this;
+        }
+        return new ReorderRunDto(startedAt, elapsedMillis, lookbackDays, orderLines, productsAnalysed,
+                totalSuggestions, suggestions.subList(0, limit));
+    }
+}
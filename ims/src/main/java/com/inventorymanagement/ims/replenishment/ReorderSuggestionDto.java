@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.replenishment;
+
+public record ReorderSuggestionDto(
+        Long productId,
+        String productName,
+        int onHand,
+        double dailyDemand,
+        int reorderPoint,
+        int suggestedQuantity,
+        double daysOfCover
+) {
+}
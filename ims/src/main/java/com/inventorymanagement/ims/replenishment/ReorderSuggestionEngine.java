@@ -0,0 +1,262 @@
+package com.inventorymanagement.ims.replenishment;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.product.BundleGraph;
+import com.inventorymanagement.ims.product.ProductRepository;
+import com.inventorymanagement.ims.product.ProductStockRow;
+import com.inventorymanagement.ims.purchaseorder.OrderItemRepository;
+import com.inventorymanagement.ims.purchaseorder.OrderLineRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// Derives reorder points and quantities for the whole catalog from the order lines of the
+// lookback window. The catalog is held in primitive arrays indexed by position in id order, and
+// history is read in keyset chunks: while one chunk is summed on the fork-join pool the next is
+// fetched. Lines of bundles are charged to their stocked components, so demand ends up on the
+// products that are actually replenished.
+//
+// Demand is treated as Poisson, so the safety stock for the lead time is z * sqrt(expected
+// demand). The reorder point is the expected lead time demand plus safety stock, and a product at
+// or below it is topped up to the reorder point plus the demand of one review period.
+@Component
+public class ReorderSuggestionEngine {
+
+    private static final int CATALOG_PAGE_SIZE = 10_000;
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final BundleGraph bundleGraph;
+    private final StockReservationEngine stockReservationEngine;
+    private final ForkJoinPool pool;
+    private final int lookbackDays;
+    private final int leadTimeDays;
+    private final int reviewDays;
+    private final double serviceLevelZ;
+    private final int chunkSize;
+
+    public ReorderSuggestionEngine(ProductRepository productRepository, OrderItemRepository orderItemRepository,
+                                   BundleGraph bundleGraph, StockReservationEngine stockReservationEngine,
+                                   @Value("${ims.replenishment.parallelism:0}") int parallelism,
+                                   @Value("${ims.replenishment.lookback-days:90}") int lookbackDays,
+                                   @Value("${ims.replenishment.lead-time-days:7}") int leadTimeDays,
+                                   @Value("${ims.replenishment.review-days:14}") int reviewDays,
+                                   @Value("${ims.replenishment.service-level-z:1.65}") double serviceLevelZ,
+                                   @Value("${ims.replenishment.history-chunk-size:20000}") int chunkSize) {
+        if (lookbackDays <= 0 || leadTimeDays <= 0 || reviewDays <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("ims.replenishment day counts and chunk size must be greater than zero");
+        }
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.bundleGraph = bundleGraph;
+        this.stockReservationEngine = stockReservationEngine;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.lookbackDays = lookbackDays;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceLevelZ = serviceLevelZ;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public ReorderRunDto run() {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+
+        Catalog catalog = loadCatalog();
+        AtomicLongArray demand = new AtomicLongArray(catalog.size());
+        long orderLines = accumulateDemand(catalog, demand, LocalDateTime.now().minusDays(lookbackDays));
+
+        List<ReorderSuggestionDto> suggestions = pool.submit(() -> IntStream.range(0, catalog.size())
+                .parallel()
+                .filter(i -> !catalog.bundle()[i])
+                .mapToObj(i -> suggest(catalog, i, demand.get(i)))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(ReorderSuggestionDto::daysOfCover)
+                        .thenComparing(ReorderSuggestionDto::productId))
+                .toList()).join();
+
+        return new ReorderRunDto(startedAt, (System.nanoTime() - start) / 1_000_000, lookbackDays, orderLines,
+                catalog.size(), suggestions.size(), suggestions);
+    }
+
+    private ReorderSuggestionDto suggest(Catalog catalog, int index, long unitsOrdered) {
+        if (unitsOrdered == 0) {
+            return null;
+        }
+        double dailyDemand = (double) unitsOrdered / lookbackDays;
+        double leadTimeDemand = dailyDemand * leadTimeDays;
+        int reorderPoint = (int) Math.ceil(leadTimeDemand + serviceLevelZ * Math.sqrt(leadTimeDemand));
+        int onHand = catalog.onHand()[index];
+        if (onHand > reorderPoint) {
+            return null;
+        }
+        int orderUpTo = (int) Math.ceil(reorderPoint + dailyDemand * reviewDays);
+        return new ReorderSuggestionDto(catalog.ids()[index], catalog.names()[index], onHand, dailyDemand, reorderPoint,
+                Math.max(orderUpTo - onHand, 1), onHand / dailyDemand);
+    }
+
+    // Ids come back in ascending order, so the id array can be binary searched
+    private Catalog loadCatalog() {
+        List<ProductStockRow> rows = new ArrayList<>();
+        Long after = 0L;
+        while (true) {
+            List<ProductStockRow> page = productRepository.findStockRowsAfter(after, Limit.of(CATALOG_PAGE_SIZE));
+            rows.addAll(page);
+            if (page.size() < CATALOG_PAGE_SIZE) {
+                break;
+            }
+            after = page.get(page.size() - 1).id();
+        }
+
+        int size = rows.size();
+        Catalog catalog = new Catalog(new long[size], new String[size], new int[size], new boolean[size],
+                new int[size][], new int[size][]);
+        for (int i = 0; i < size; i++) {
+            ProductStockRow row = rows.get(i);
+            catalog.ids()[i] = row.id();
+            catalog.names()[i] = row.name();
+            // The reservation engine is ahead of the table until its next flush
+            catalog.onHand()[i] = stockReservationEngine.available(row.id()).orElse(row.quantity());
+            catalog.bundle()[i] = row.isBundle();
+        }
+        for (int i = 0; i < size; i++) {
+            if (catalog.bundle()[i]) {
+                expandBundle(catalog, i);
+            }
+        }
+        return catalog;
+    }
+
+    private void expandBundle(Catalog catalog, int bundleIndex) {
+        Map<Long, Integer> components = bundleGraph.expand(catalog.ids()[bundleIndex]);
+        int[] indexes = new int[components.size()];
+        int[] units = new int[components.size()];
+        int count = 0;
+        for (Map.Entry<Long, Integer> component : components.entrySet()) {
+            int index = catalog.indexOf(component.getKey());
+            if (index >= 0) {
+                indexes[count] = index;
+                units[count] = component.getValue();
+                count++;
+            }
+        }
+        catalog.componentIndexes()[bundleIndex] = Arrays.copyOf(indexes, count);
+        catalog.componentUnits()[bundleIndex] = Arrays.copyOf(units, count);
+    }
+
+    private long accumulateDemand(Catalog catalog, AtomicLongArray demand, LocalDateTime from) {
+        Long first = orderItemRepository.findFirstIdOrderedSince(from);
+        if (first == null) {
+            return 0;
+        }
+        long after = first - 1;
+        long lines = 0;
+        ForkJoinTask<Void> summing = null;
+        while (true) {
+            List<OrderLineRow> rows = orderItemRepository.findLinesAfter(after, from, Limit.of(chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            long[] productIds = new long[rows.size()];
+            int[] quantities = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                productIds[i] = rows.get(i).productId();
+                quantities[i] = rows.get(i).quantity();
+            }
+            after = rows.get(rows.size() - 1).id();
+            lines += rows.size();
+
+            if (summing != null) {
+                summing.join();
+            }
+            summing = pool.submit(new SumDemand(catalog, demand, productIds, quantities, 0, rows.size()));
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+        if (summing != null) {
+            summing.join();
+        }
+        return lines;
+    }
+
+    private record Catalog(long[] ids, String[] names, int[] onHand, boolean[] bundle,
+                           int[][] componentIndexes, int[][] componentUnits) {
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(long productId) {
+            return Arrays.binarySearch(ids, productId);
+        }
+    }
+
+    // Splits a chunk of lines in halves down to THRESHOLD lines, then adds each line to the demand
+    // of its product, or of its components for a bundle
+    private static final class SumDemand extends RecursiveAction {
+
+        private static final int THRESHOLD = 4096;
+
+        private final Catalog catalog;
+        private final AtomicLongArray demand;
+        private final long[] productIds;
+        private final int[] quantities;
+        private final int from;
+        private final int to;
+
+        SumDemand(Catalog catalog, AtomicLongArray demand, long[] productIds, int[] quantities, int from, int to) {
+            this.catalog = catalog;
+            this.demand = demand;
+            this.productIds = productIds;
+            this.quantities = quantities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SumDemand(catalog, demand, productIds, quantities, from, middle),
+                        new SumDemand(catalog, demand, productIds, quantities, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                // Lines of deleted products have no index and are skipped
+                int index = catalog.indexOf(productIds[i]);
+                if (index < 0) {
+                    continue;
+                }
+                int[] components = catalog.componentIndexes()[index];
+                if (components == null) {
+                    demand.addAndGet(index, quantities[i]);
+                    continue;
+                }
+                int[] units = catalog.componentUnits()[index];
+                for (int c = 0; c < components.length; c++) {
+                    demand.addAndGet(components[c], (long) quantities[i] * units[c]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventorymanagement.ims.replenishment;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/replenishment")
+public class ReplenishmentController {
+
+    private final ReplenishmentService replenishmentService;
+
+    public ReplenishmentController(ReplenishmentService replenishmentService) {
+        this.replenishmentService = replenishmentService;
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<ReorderRunDto> getSuggestions(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(replenishmentService.getLatestRun(limit));
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<ReorderRunDto> run(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(replenishmentService.runNow(limit));
+    }
+}
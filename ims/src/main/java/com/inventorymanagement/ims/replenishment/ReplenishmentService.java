@@ -0,0 +1,72 @@
+package com.inventorymanagement.ims.replenishment;
+
+import com.inventorymanagement.ims.exception.ConflictException;
+import com.inventorymanagement.ims.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs the reorder suggestion engine nightly and on demand, one run at a time, and keeps the
+// result of the latest run in memory
+@Service
+public class ReplenishmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplenishmentService.class);
+    private static final int MAX_SUGGESTIONS = 5000;
+
+    private final ReorderSuggestionEngine engine;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReorderRunDto latestRun;
+
+    public ReplenishmentService(ReorderSuggestionEngine engine) {
+        this.engine = engine;
+    }
+
+    @Scheduled(cron = "${ims.replenishment.cron:0 30 2 * * *}")
+    public void runScheduled() {
+        try {
+            ReorderRunDto run = run();
+            log.info("Reorder suggestions: {} products, {} order lines, {} suggestions in {} ms",
+                    run.productsAnalysed(), run.orderLines(), run.totalSuggestions(), run.elapsedMillis());
+        } catch (ConflictException e) {
+            log.info("Skipping scheduled reorder suggestion run: {}", e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ReorderRunDto runNow(int limit) {
+        return run().limitedTo(requireLimit(limit));
+    }
+
+    public ReorderRunDto getLatestRun(int limit) {
+        ReorderRunDto run = latestRun;
+        if (run == null) {
+            throw new ResourceNotFoundException("No reorder suggestion run has completed yet");
+        }
+        return run.limitedTo(requireLimit(limit));
+    }
+
+    private ReorderRunDto run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A reorder suggestion run is already in progress");
+        }
+        try {
+            ReorderRunDto run = engine.run();
+            latestRun = run;
+            return run;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static int requireLimit(int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return limit;
+    }
+}
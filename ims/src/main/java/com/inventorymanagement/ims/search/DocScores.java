@@ -0,0 +1,100 @@
+package com.inventorymanagement.ims.search;
+
+import java.util.Arrays;
+
+// Per query score accumulator keyed by document id, open addressing over primitive arrays.
+// Only documents matched by the first query token are ever added, later tokens can only
+// confirm or drop them, so the table is sized by the rarest token rather than the catalog.
+// The table doubles once it is half full, so a low estimate costs a rehash, never a full table.
+final class DocScores {
+
+    private static final int EMPTY = -1;
+
+    private int[] docs;
+    private float[] scores;
+    private float[] tokenBest;
+    private int[] matchedTokens;
+    private int mask;
+    private int size;
+
+    DocScores(int expected) {
+        allocate(Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1);
+    }
+
+    // Scores a match of query token number "token". A document counts a token once, with the
+    // weight of its best matching term.
+    void accept(int doc, int token, float weight) {
+        int slot = slotOf(doc);
+        if (docs[slot] == EMPTY) {
+            if (token > 0) {
+                return;
+            }
+            if ((size + 1) * 2 > docs.length) {
+                grow();
+                slot = slotOf(doc);
+            }
+            docs[slot] = doc;
+            size++;
+        }
+        if (matchedTokens[slot] == token) {
+            matchedTokens[slot] = token + 1;
+            scores[slot] += weight;
+            tokenBest[slot] = weight;
+        } else if (matchedTokens[slot] == token + 1 && weight > tokenBest[slot]) {
+            scores[slot] += weight - tokenBest[slot];
+            tokenBest[slot] = weight;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return docs.length;
+    }
+
+    // Document in the slot if it matched all "tokens" query tokens, otherwise -1
+    int docAt(int slot, int tokens) {
+        return docs[slot] != EMPTY && matchedTokens[slot] == tokens ? docs[slot] : EMPTY;
+    }
+
+    float scoreAt(int slot) {
+        return scores[slot];
+    }
+
+    // The slot holding doc, or the empty slot where it would go
+    private int slotOf(int doc) {
+        int slot = (doc * 0x9E3779B9) >>> 1 & mask;
+        while (docs[slot] != EMPTY && docs[slot] != doc) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldDocs = docs;
+        float[] oldScores = scores;
+        float[] oldTokenBest = tokenBest;
+        int[] oldMatchedTokens = matchedTokens;
+        allocate(oldDocs.length * 2);
+        for (int old = 0; old < oldDocs.length; old++) {
+            if (oldDocs[old] != EMPTY) {
+                int slot = slotOf(oldDocs[old]);
+                docs[slot] = oldDocs[old];
+                scores[slot] = oldScores[old];
+                tokenBest[slot] = oldTokenBest[old];
+                matchedTokens[slot] = oldMatchedTokens[old];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        docs = new int[capacity];
+        Arrays.fill(docs, EMPTY);
+        scores = new float[capacity];
+        tokenBest = new float[capacity];
+        matchedTokens = new int[capacity];
+        mask = capacity - 1;
+    }
+}
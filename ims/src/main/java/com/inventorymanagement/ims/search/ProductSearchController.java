@@ -0,0 +1,35 @@
+package com.inventorymanagement.ims.search;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/products/search")
+public class ProductSearchController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    public ProductSearchController(ProductSearchIndex productSearchIndex) {
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<ProductSearchResultDto> search(@RequestParam(defaultValue = "") String q,
+                                                         @RequestParam(required = false) String size,
+                                                         @RequestParam(required = false) String color,
+                                                         @RequestParam(required = false) Boolean bundle,
+                                                         @RequestParam(defaultValue = "20") int limit,
+                                                         @RequestParam(defaultValue = "true") boolean fuzzy) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(productSearchIndex.search(q, size, color, bundle, limit, fuzzy));
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventorymanagement.ims.search;
+
+public record ProductSearchHitDto(
+        Long id,
+        String name,
+        String description,
+        double price,
+        int quantity,
+        String size,
+        String color,
+        boolean isBundle,
+        float score
+) {
+}
@@ -0,0 +1,429 @@
+package com.inventorymanagement.ims.search;
+
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over product name, description, size and color. Terms live in a
+// sorted map for prefix expansion and a SymSpell style delete dictionary finds terms one edit
+// away. Documents get a new id whenever their text changes and the old id is simply marked dead,
+// so posting lists are append only; they are compacted once enough dead ids pile up. Stock and
+// price changes replace the stored document in place without touching the postings.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.6f;
+    private static final float FUZZY_MATCH = 0.4f;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int REBUILD_PAGE_SIZE = 5000;
+    private static final int MIN_DEAD_DOCUMENTS_TO_COMPACT = 10_000;
+
+    enum Field {
+        NAME(3.0f),
+        ATTRIBUTE(2.0f),
+        DESCRIPTION(1.0f);
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Postings {
+        private final IntList[] byField = new IntList[Field.values().length];
+
+        void add(Field field, int doc) {
+            IntList docs = byField[field.ordinal()];
+            if (docs == null) {
+                docs = new IntList();
+                byField[field.ordinal()] = docs;
+            }
+            docs.add(doc);
+        }
+
+        int size() {
+            int size = 0;
+            for (IntList docs : byField) {
+                size += docs == null ? 0 : docs.size();
+            }
+            return size;
+        }
+    }
+
+    private record TermMatch(Postings postings, float weight) {
+    }
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate rebuildTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<SearchDocument> documents = new ArrayList<>();
+    private final Map<Long, Integer> docIdByProduct = new HashMap<>();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, List<String>> fuzzyDictionary = new HashMap<>();
+    private int deadDocuments;
+
+    // Products changed by events while a rebuild is reading, the rebuild must not overwrite them
+    private Set<Long> changedDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        // Not read-only: with replicas configured that would route the rebuild to one that may be
+        // behind, and products missed there would stay out of the index until they change again
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Loads the catalog page by page with keyset pagination, each page indexed under a short write lock
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            rebuildTransaction.executeWithoutResult(status -> {
+                long lastId = 0L;
+                List<Product> page;
+                do {
+                    page = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_PAGE_SIZE));
+                    lock.writeLock().lock();
+                    try {
+                        for (Product product : page) {
+                            if (!changedDuringRebuild.contains(product.getId())) {
+                                upsert(SearchDocument.of(product));
+                            }
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    if (!page.isEmpty()) {
+                        lastId = page.get(page.size() - 1).getId();
+                    }
+                    entityManager.clear();
+                } while (page.size() == REBUILD_PAGE_SIZE);
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Indexed {} products for search in {} ms", docIdByProduct.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Package-private for tests
+    int deadDocuments() {
+        lock.readLock().lock();
+        try {
+            return deadDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Long productId = event.after() != null ? event.after().id() : event.before().id();
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(productId);
+            }
+            if (event.after() == null) {
+                remove(productId);
+            } else {
+                upsert(SearchDocument.of(event.after()));
+            }
+            if (deadDocuments >= MIN_DEAD_DOCUMENTS_TO_COMPACT && deadDocuments > docIdByProduct.size() / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResultDto search(String query, String size, String color, Boolean bundle,
+                                         int limit, boolean fuzzy) {
+        long start = System.nanoTime();
+        List<String> tokens = new ArrayList<>(SearchTokenizer.tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Long>> facets = new HashMap<>();
+            facets.put("size", new TreeMap<>());
+            facets.put("color", new TreeMap<>());
+            facets.put("bundle", new TreeMap<>());
+            Comparator<ScoredDoc> byScore = Comparator.comparingDouble(ScoredDoc::score)
+                    .thenComparing(scored -> -scored.doc());
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit + 1, byScore);
+            long totalHits = 0;
+
+            if (tokens.isEmpty()) {
+                for (int doc = 0; doc < documents.size(); doc++) {
+                    totalHits += collect(doc, 0f, size, color, bundle, limit, facets, top);
+                }
+            } else {
+                DocScores scores = score(tokens, fuzzy);
+                if (scores != null) {
+                    for (int slot = 0; slot < scores.capacity(); slot++) {
+                        int doc = scores.docAt(slot, tokens.size());
+                        if (doc >= 0) {
+                            totalHits += collect(doc, scores.scoreAt(slot), size, color, bundle, limit, facets, top);
+                        }
+                    }
+                }
+            }
+
+            List<ProductSearchHitDto> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ScoredDoc scored = top.poll();
+                SearchDocument document = documents.get(scored.doc());
+                hits.add(0, new ProductSearchHitDto(document.id(), document.name(), document.description(),
+                        document.price(), document.quantity(), document.size(), document.color(),
+                        document.isBundle(), scored.score()));
+            }
+            return new ProductSearchResultDto(totalHits, hits, facets, (System.nanoTime() - start) / 1_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record ScoredDoc(int doc, float score) {
+    }
+
+    // Counts the facets of a live text match and, if it passes the filters, offers it to the top list
+    private int collect(int doc, float score, String size, String color, Boolean bundle, int limit,
+                        Map<String, Map<String, Long>> facets, PriorityQueue<ScoredDoc> top) {
+        SearchDocument document = documents.get(doc);
+        if (document == null) {
+            return 0;
+        }
+        if (document.size() != null) {
+            facets.get("size").merge(document.size(), 1L, Long::sum);
+        }
+        if (document.color() != null) {
+            facets.get("color").merge(document.color(), 1L, Long::sum);
+        }
+        facets.get("bundle").merge(String.valueOf(document.isBundle()), 1L, Long::sum);
+
+        if ((size != null && !size.equalsIgnoreCase(document.size()))
+                || (color != null && !color.equalsIgnoreCase(document.color()))
+                || (bundle != null && bundle != document.isBundle())) {
+            return 0;
+        }
+        top.add(new ScoredDoc(doc, score));
+        if (top.size() > limit) {
+            top.poll();
+        }
+        return 1;
+    }
+
+    // Every document has to match every token, through an exact, prefix or fuzzy term. Tokens are
+    // scored rarest first so the accumulator only ever holds the rarest token's matches.
+    private DocScores score(List<String> tokens, boolean fuzzy) {
+        List<List<TermMatch>> matchesPerToken = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            List<TermMatch> matches = expand(token, fuzzy);
+            if (matches.isEmpty()) {
+                return null;
+            }
+            matchesPerToken.add(matches);
+        }
+        matchesPerToken.sort(Comparator.comparingLong(ProductSearchIndex::postingCount));
+
+        // Postings still list dead ids until the next compaction, they are skipped here so the
+        // accumulator only ever holds live documents
+        int liveDocuments = docIdByProduct.size();
+        DocScores scores = new DocScores((int) Math.min(postingCount(matchesPerToken.get(0)), liveDocuments));
+        for (int token = 0; token < matchesPerToken.size(); token++) {
+            for (TermMatch match : matchesPerToken.get(token)) {
+                for (Field field : Field.values()) {
+                    IntList docs = match.postings().byField[field.ordinal()];
+                    if (docs == null) {
+                        continue;
+                    }
+                    float idf = (float) Math.log(1 + (double) liveDocuments / (1 + docs.size()));
+                    float weight = match.weight() * field.weight * idf;
+                    for (int i = 0; i < docs.size(); i++) {
+                        int doc = docs.get(i);
+                        if (documents.get(doc) != null) {
+                            scores.accept(doc, token, weight);
+                        }
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static long postingCount(List<TermMatch> matches) {
+        long count = 0;
+        for (TermMatch match : matches) {
+            count += match.postings().size();
+        }
+        return count;
+    }
+
+    private List<TermMatch> expand(String token, boolean fuzzy) {
+        List<TermMatch> matches = new ArrayList<>();
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            matches.add(new TermMatch(exact, EXACT_MATCH));
+        }
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            // The most frequent completions are kept when a short prefix has too many
+            List<Postings> completions = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : terms.tailMap(token, false).entrySet()) {
+                if (!entry.getKey().startsWith(token)) {
+                    break;
+                }
+                completions.add(entry.getValue());
+            }
+            if (completions.size() > MAX_PREFIX_EXPANSIONS) {
+                completions.sort(Comparator.comparingInt(Postings::size).reversed());
+                completions = completions.subList(0, MAX_PREFIX_EXPANSIONS);
+            }
+            for (Postings postings : completions) {
+                matches.add(new TermMatch(postings, PREFIX_MATCH));
+            }
+        }
+
+        if (fuzzy && token.length() >= MIN_FUZZY_LENGTH && SearchTokenizer.hasLetter(token)) {
+            Set<String> seen = new HashSet<>();
+            for (String key : SearchTokenizer.deletes(token)) {
+                for (String term : fuzzyDictionary.getOrDefault(key, List.of())) {
+                    if (!term.startsWith(token) && seen.add(term) && SearchTokenizer.withinOneEdit(token, term)) {
+                        matches.add(new TermMatch(terms.get(term), FUZZY_MATCH));
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void upsert(SearchDocument document) {
+        Integer docId = docIdByProduct.get(document.id());
+        if (docId != null) {
+            SearchDocument current = documents.get(docId);
+            if (current.sameText(document)) {
+                documents.set(docId, document);
+                return;
+            }
+            remove(document.id());
+        }
+        add(document);
+    }
+
+    private void add(SearchDocument document) {
+        int docId = documents.size();
+        documents.add(document);
+        docIdByProduct.put(document.id(), docId);
+        indexField(docId, Field.NAME, document.name());
+        indexField(docId, Field.DESCRIPTION, document.description());
+        indexField(docId, Field.ATTRIBUTE, document.size());
+        indexField(docId, Field.ATTRIBUTE, document.color());
+    }
+
+    private void remove(Long productId) {
+        Integer docId = docIdByProduct.remove(productId);
+        if (docId != null) {
+            documents.set(docId, null);
+            deadDocuments++;
+        }
+    }
+
+    private void indexField(int docId, Field field, String text) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            Postings postings = terms.get(token);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(token, postings);
+                addToFuzzyDictionary(token);
+            }
+            IntList docs = postings.byField[field.ordinal()];
+            // Size and color can share a token, a document is listed once per field
+            if (docs == null || docs.size() == 0 || docs.get(docs.size() - 1) != docId) {
+                postings.add(field, docId);
+            }
+        }
+    }
+
+    private void addToFuzzyDictionary(String term) {
+        // Numbers and very short terms are left out, typos there are rare and they would
+        // dominate the dictionary
+        if (term.length() < MIN_FUZZY_LENGTH - 1 || !SearchTokenizer.hasLetter(term)) {
+            return;
+        }
+        for (String key : SearchTokenizer.deletes(term)) {
+            fuzzyDictionary.computeIfAbsent(key, k -> new ArrayList<>(1)).add(term);
+        }
+    }
+
+    // Re-indexes the live documents with dense ids, dropping dead postings and unused terms
+    private void compact() {
+        List<SearchDocument> live = new ArrayList<>(docIdByProduct.size());
+        for (SearchDocument document : documents) {
+            if (document != null) {
+                live.add(document);
+            }
+        }
+        clear();
+        live.forEach(this::add);
+    }
+
+    private void clear() {
+        documents.clear();
+        docIdByProduct.clear();
+        terms.clear();
+        fuzzyDictionary.clear();
+        deadDocuments = 0;
+    }
+}
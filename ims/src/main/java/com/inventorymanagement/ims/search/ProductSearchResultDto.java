@@ -0,0 +1,14 @@
+package com.inventorymanagement.ims.search;
+
+import java.util.List;
+import java.util.Map;
+
+// Facets count every text match, so a client can offer the other values; totalHits and hits
+// have the size, color and bundle filters applied
+public record ProductSearchResultDto(
+        long totalHits,
+        List<ProductSearchHitDto> hits,
+        Map<String, Map<String, Long>> facets,
+        long tookMicros
+) {
+}
@@ -0,0 +1,36 @@
+package com.inventorymanagement.ims.search;
+
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+
+import java.util.Objects;
+
+// What the search index keeps per product, enough to render a hit without a database read
+record SearchDocument(
+        Long id,
+        String name,
+        String description,
+        double price,
+        int quantity,
+        String size,
+        String color,
+        boolean isBundle
+) {
+    static SearchDocument of(ProductSnapshot product) {
+        return new SearchDocument(product.id(), product.name(), product.description(), product.price(),
+                product.quantity(), product.size(), product.color(), product.isBundle());
+    }
+
+    static SearchDocument of(Product product) {
+        return new SearchDocument(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getSize(), product.getColor(), product.isBundle());
+    }
+
+    // Whether the indexed text is the same, in which case only the stored fields need replacing
+    boolean sameText(SearchDocument other) {
+        return Objects.equals(name, other.name)
+                && Objects.equals(description, other.description)
+                && Objects.equals(size, other.size)
+                && Objects.equals(color, other.color);
+    }
+}
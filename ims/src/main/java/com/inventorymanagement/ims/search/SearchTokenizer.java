@@ -0,0 +1,77 @@
+package com.inventorymanagement.ims.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Lower cased runs of letters and digits, so "T-Shirt (Blue)" becomes t, shirt and blue
+final class SearchTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokenizer() {
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static boolean hasLetter(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isLetter(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The term itself plus every variant with one character removed, the SymSpell delete set
+    static Set<String> deletes(String term) {
+        Set<String> deletes = new LinkedHashSet<>();
+        deletes.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            deletes.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletes;
+    }
+
+    // Damerau-Levenshtein distance of at most one: a substitution, insertion, deletion or swap of
+    // two adjacent characters
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int prefix = 0;
+        int shorter = Math.min(a.length(), b.length());
+        while (prefix < shorter && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == shorter) {
+            return true;
+        }
+        if (lengthDifference > 0) {
+            return a.regionMatches(prefix + 1, b, prefix, b.length() - prefix);
+        }
+        if (lengthDifference < 0) {
+            return b.regionMatches(prefix + 1, a, prefix, a.length() - prefix);
+        }
+        if (a.regionMatches(prefix + 1, b, prefix + 1, a.length() - prefix - 1)) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1)
+                && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.regionMatches(prefix + 2, b, prefix + 2, a.length() - prefix - 2);
+    }
+}
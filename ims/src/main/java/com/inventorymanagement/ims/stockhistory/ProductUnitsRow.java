@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.stockhistory;
+
+// Units summed per product by a rollup aggregate query
+public record ProductUnitsRow(
+        Long productId,
+        long units
+) {
+}
@@ -0,0 +1,16 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import java.time.Instant;
+
+// daysOfCover is null when nothing sold in the window
+public record SalesVelocityDto(
+        Long productId,
+        String productName,
+        Instant from,
+        int days,
+        long unitsSold,
+        double unitsPerDay,
+        int onHand,
+        Double daysOfCover
+) {
+}
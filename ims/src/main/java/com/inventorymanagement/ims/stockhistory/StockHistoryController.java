@@ -0,0 +1,50 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@CrossOrigin
+@RequestMapping("api/analytics")
+public class StockHistoryController {
+
+    private final StockHistoryService stockHistoryService;
+
+    public StockHistoryController(StockHistoryService stockHistoryService) {
+        this.stockHistoryService = stockHistoryService;
+    }
+
+    @GetMapping("/sales-velocity")
+    public ResponseEntity<SalesVelocityDto> getSalesVelocity(@RequestParam Long productId,
+                                                             @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(stockHistoryService.getSalesVelocity(productId, days));
+    }
+
+    // Defaults to the last 30 days by day
+    @GetMapping("/stock-history")
+    public ResponseEntity<List<StockLevelPointDto>> getStockHistory(
+            @RequestParam Long productId,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        RollupGranularity rollupGranularity = RollupGranularity.valueOf(granularity.toUpperCase());
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(30));
+        return ResponseEntity.ok(stockHistoryService.getStockHistory(productId, rollupGranularity, start, end));
+    }
+
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<TopSellerDto>> getTopSellers(@RequestParam(defaultValue = "30") int days,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(stockHistoryService.getTopSellers(days, limit));
+    }
+}
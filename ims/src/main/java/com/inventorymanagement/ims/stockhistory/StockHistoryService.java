@@ -0,0 +1,117 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Historical stock figures, read from the rollups only. Their cost depends on the length of the
+// window, never on how many orders or movements have been recorded. The figures trail live
+// stock by up to one rollup interval.
+@Service
+public class StockHistoryService {
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_POINTS = 2000;
+    private static final int MAX_TOP_SELLERS = 100;
+
+    private final StockRollupRepository stockRollupRepository;
+    private final ProductRepository productRepository;
+
+    public StockHistoryService(StockRollupRepository stockRollupRepository, ProductRepository productRepository) {
+        this.stockRollupRepository = stockRollupRepository;
+        this.productRepository = productRepository;
+    }
+
+    // Units sold per day over the last days days, today included
+    @Transactional(readOnly = true)
+    public SalesVelocityDto getSalesVelocity(Long productId, int days) {
+        requireDays(days);
+        Instant from = windowStart(days);
+        long unitsSold = stockRollupRepository.sumUnitsSold(productId, RollupGranularity.DAY, from);
+        int onHand = closingStockBefore(productId, RollupGranularity.DAY, from.plus(Duration.ofDays(days)));
+        double unitsPerDay = (double) unitsSold / days;
+        Double daysOfCover = unitsSold > 0 ? onHand / unitsPerDay : null;
+        String name = productRepository.findById(productId).map(Product::getName).orElse(null);
+        return new SalesVelocityDto(productId, name, from, days, unitsSold, unitsPerDay, onHand, daysOfCover);
+    }
+
+    // One point per bucket from from to to, buckets without movements repeat the previous stock
+    @Transactional(readOnly = true)
+    public List<StockLevelPointDto> getStockHistory(Long productId, RollupGranularity granularity, Instant from, Instant to) {
+        Instant start = granularity.bucketOf(from);
+        if (!start.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        Duration step = granularity.bucketLength();
+        if (Duration.between(start, to).dividedBy(step) >= MAX_POINTS) {
+            throw new IllegalArgumentException("At most " + MAX_POINTS + " points per request, use a coarser granularity");
+        }
+
+        int onHand = closingStockBefore(productId, granularity, start);
+        Iterator<StockRollup> rollups = stockRollupRepository.findSeries(productId, granularity, start, to).iterator();
+        StockRollup next = rollups.hasNext() ? rollups.next() : null;
+        List<StockLevelPointDto> points = new ArrayList<>();
+        for (Instant bucket = start; bucket.isBefore(to); bucket = bucket.plus(step)) {
+            if (next != null && next.getId().getBucketStart().equals(bucket)) {
+                onHand = next.getOnHand();
+                points.add(new StockLevelPointDto(bucket, next.getUnitsSold(), next.getUnitsReceived(),
+                        next.getUnitsAdjusted(), onHand));
+                next = rollups.hasNext() ? rollups.next() : null;
+            } else {
+                points.add(new StockLevelPointDto(bucket, 0, 0, 0, onHand));
+            }
+        }
+        return points;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TopSellerDto> getTopSellers(int days, int limit) {
+        requireDays(days);
+        if (limit < 1 || limit > MAX_TOP_SELLERS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP_SELLERS);
+        }
+        List<ProductUnitsRow> rows = stockRollupRepository.findTopSellers(RollupGranularity.DAY, windowStart(days), Limit.of(limit));
+        Map<Long, String> names = productRepository.findAllById(rows.stream().map(ProductUnitsRow::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+        return rows.stream()
+                .map(row -> new TopSellerDto(row.productId(), names.get(row.productId()), row.units()))
+                .toList();
+    }
+
+    private int closingStockBefore(Long productId, RollupGranularity granularity, Instant before) {
+        List<StockRollup> latest = stockRollupRepository.findLatestBefore(productId, granularity, before, Limit.of(1));
+        if (!latest.isEmpty()) {
+            return latest.get(0).getOnHand();
+        }
+        // Before the first recorded bucket the stock is what that bucket opened with
+        List<StockRollup> earliest = stockRollupRepository.findEarliest(productId, granularity, Limit.of(1));
+        if (earliest.isEmpty()) {
+            return 0;
+        }
+        StockRollup first = earliest.get(0);
+        long net = first.getUnitsReceived() + first.getUnitsAdjusted() - first.getUnitsSold();
+        return (int) Math.max(0, first.getOnHand() - net);
+    }
+
+    private static Instant windowStart(int days) {
+        return RollupGranularity.DAY.bucketOf(Instant.now()).minus(Duration.ofDays(days - 1L));
+    }
+
+    private static void requireDays(int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+    }
+}
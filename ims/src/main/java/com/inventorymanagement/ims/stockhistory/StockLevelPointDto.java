@@ -0,0 +1,12 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import java.time.Instant;
+
+public record StockLevelPointDto(
+        Instant bucketStart,
+        long unitsSold,
+        long unitsReceived,
+        long unitsAdjusted,
+        int onHand
+) {
+}
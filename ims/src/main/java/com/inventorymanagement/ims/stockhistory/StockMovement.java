@@ -0,0 +1,40 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// One change of a product's available stock, appended in the transaction that made it. Rows are
+// never updated apart from being marked once the rollup aggregator has counted them. The product
+// id is not a foreign key, so the history of a deleted product stays.
+@Data
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product", columnList = "product_id, occurred_at"),
+        @Index(name = "idx_stock_movements_rolled_up_at", columnList = "rolled_up_at")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementType movementType;
+
+    // Signed, negative for stock leaving
+    private int quantity;
+
+    // Available stock right after the movement
+    private int onHand;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private Instant rolledUpAt;
+}
@@ -0,0 +1,31 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByRolledUpAtIsNullOrderByIdAsc(Limit limit);
+
+    // An opening movement for every stocked product without any history yet: an adjustment of zero
+    // units, so it only carries the stored stock into the rollups as their closing stock
+    @Modifying
+    @Query("INSERT INTO StockMovement (productId, movementType, quantity, onHand, occurredAt) "
+            + "SELECT p.id, com.inventorymanagement.ims.stockhistory.StockMovementType.ADJUSTMENT, 0, p.quantity, :occurredAt "
+            + "FROM Product p WHERE p.isBundle = false "
+            + "AND NOT EXISTS (SELECT 1 FROM StockMovement m WHERE m.productId = p.id)")
+    int insertOpeningBalances(@Param("occurredAt") Instant occurredAt);
+
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.rolledUpAt = :rolledUpAt WHERE m.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids, @Param("rolledUpAt") Instant rolledUpAt);
+}
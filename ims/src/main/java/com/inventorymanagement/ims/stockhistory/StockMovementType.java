@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.stockhistory;
+
+public enum StockMovementType {
+    SALE,
+    RECEIPT,
+    ADJUSTMENT
+}
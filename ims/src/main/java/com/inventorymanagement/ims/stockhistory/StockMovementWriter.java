@@ -0,0 +1,56 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import com.inventorymanagement.ims.jdbc.TransactionalBatchInserter;
+import com.inventorymanagement.ims.product.ProductChangeCause;
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Appends a stock movement for every change of available stock, in the transaction that made the
+// change. Like the outbox, rows are buffered per transaction and written with JDBC batches just
+// before commit. Bundles hold no stock of their own and are skipped.
+@Component
+public class StockMovementWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_movements "
+            + "(product_id, movement_type, quantity, on_hand, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final TransactionalBatchInserter inserter;
+
+    public StockMovementWriter(JdbcTemplate jdbcTemplate) {
+        this.inserter = new TransactionalBatchInserter(jdbcTemplate, INSERT_SQL, INSERT_BATCH_SIZE);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSnapshot before = event.before();
+        ProductSnapshot after = event.after();
+        if ((before != null && before.isBundle()) || (after != null && after.isBundle())) {
+            return;
+        }
+
+        int previous = before == null ? 0 : before.quantity();
+        int current = after == null ? 0 : after.quantity();
+        int quantity = current - previous;
+        if (quantity == 0) {
+            return;
+        }
+
+        StockMovementType type;
+        if (event.cause() == ProductChangeCause.ORDER) {
+            type = StockMovementType.SALE;
+        } else if (quantity > 0) {
+            type = StockMovementType.RECEIPT;
+        } else {
+            type = StockMovementType.ADJUSTMENT;
+        }
+        Long productId = after != null ? after.id() : before.id();
+        inserter.append(new Object[]{productId, type.name(), quantity, current, Timestamp.from(Instant.now())});
+    }
+}
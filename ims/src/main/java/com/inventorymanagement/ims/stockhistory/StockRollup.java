@@ -0,0 +1,30 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Movements of one product summed over an hour or a day. onHand is the stock left by the latest
+// movement in the bucket, onHandAt the time of that movement.
+@Data
+@Entity
+@Table(name = "stock_rollups", indexes = {
+        @Index(name = "idx_stock_rollups_bucket", columnList = "granularity, bucket_start")
+})
+public class StockRollup {
+
+    @EmbeddedId
+    private StockRollupId id;
+
+    private long unitsSold;
+
+    private long unitsReceived;
+
+    // Net of manual corrections, imports that lowered stock and deletions
+    private long unitsAdjusted;
+
+    private int onHand;
+
+    private Instant onHandAt;
+}
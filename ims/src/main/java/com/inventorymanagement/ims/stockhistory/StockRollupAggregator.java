@@ -0,0 +1,126 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Folds new stock movements into the hourly and daily rollups. Each batch loads the rollups it
+// touches with one query, adds to them and marks its movements in the same transaction, so a
+// movement is counted exactly once even when a run fails halfway. One aggregator per database.
+@Component
+public class StockRollupAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(StockRollupAggregator.class);
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockRollupRepository stockRollupRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StockRollupAggregator(StockMovementRepository stockMovementRepository,
+                                 StockRollupRepository stockRollupRepository, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ims.stock-history.rollup-batch-size:2000}") int batchSize) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockRollupRepository = stockRollupRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // Products that held stock before history was recorded, or were loaded behind the application's
+    // back, would otherwise show zero until their first movement
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOpeningBalances() {
+        try {
+            Integer seeded = transactionTemplate.execute(status -> stockMovementRepository.insertOpeningBalances(Instant.now()));
+            if (seeded != null && seeded > 0) {
+                log.info("Recorded opening stock for {} products without stock history", seeded);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record opening stock, retrying on the next start", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ims.stock-history.rollup-interval-ms:5000}")
+    public synchronized void aggregate() {
+        try {
+            int rolledUp;
+            do {
+                Integer count = transactionTemplate.execute(status -> rollUpBatch());
+                rolledUp = count == null ? 0 : count;
+            } while (rolledUp == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Stock rollup failed, retrying on the next run", e);
+        }
+    }
+
+    private int rollUpBatch() {
+        List<StockMovement> movements = stockMovementRepository.findByRolledUpAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (movements.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> productIds = new HashSet<>();
+        Instant earliest = Instant.MAX;
+        for (StockMovement movement : movements) {
+            productIds.add(movement.getProductId());
+            if (movement.getOccurredAt().isBefore(earliest)) {
+                earliest = movement.getOccurredAt();
+            }
+        }
+        // Every bucket the batch can touch starts on or after the day of its earliest movement
+        Map<StockRollupId, StockRollup> rollups = new HashMap<>();
+        for (StockRollup rollup : stockRollupRepository.findByProductIdsSince(productIds, RollupGranularity.DAY.bucketOf(earliest))) {
+            rollups.put(rollup.getId(), rollup);
+        }
+
+        for (StockMovement movement : movements) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                StockRollup rollup = rollups.computeIfAbsent(rollupId(movement, granularity), id -> {
+                    StockRollup created = new StockRollup();
+                    created.setId(id);
+                    entityManager.persist(created);
+                    return created;
+                });
+                apply(rollup, movement);
+            }
+        }
+
+        stockMovementRepository.markRolledUp(movements.stream().map(StockMovement::getId).toList(), Instant.now());
+        return movements.size();
+    }
+
+    private static StockRollupId rollupId(StockMovement movement, RollupGranularity granularity) {
+        return new StockRollupId(movement.getProductId(), granularity, granularity.bucketOf(movement.getOccurredAt()));
+    }
+
+    private static void apply(StockRollup rollup, StockMovement movement) {
+        switch (movement.getMovementType()) {
+            case SALE -> rollup.setUnitsSold(rollup.getUnitsSold() - movement.getQuantity());
+            case RECEIPT -> rollup.setUnitsReceived(rollup.getUnitsReceived() + movement.getQuantity());
+            case ADJUSTMENT -> rollup.setUnitsAdjusted(rollup.getUnitsAdjusted() + movement.getQuantity());
+        }
+        // Movements can commit out of id order, the closing stock follows the latest one in time
+        if (rollup.getOnHandAt() == null || !movement.getOccurredAt().isBefore(rollup.getOnHandAt())) {
+            rollup.setOnHand(movement.getOnHand());
+            rollup.setOnHandAt(movement.getOccurredAt());
+        }
+    }
+}
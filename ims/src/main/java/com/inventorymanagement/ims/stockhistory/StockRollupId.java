@@ -0,0 +1,25 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRollupId implements Serializable {
+
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    private RollupGranularity granularity;
+
+    private Instant bucketStart;
+}
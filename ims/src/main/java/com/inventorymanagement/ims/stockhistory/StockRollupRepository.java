@@ -0,0 +1,47 @@
+package com.inventorymanagement.ims.stockhistory;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockRollupRepository extends JpaRepository<StockRollup, StockRollupId> {
+
+    // findAllById would load composite ids one query at a time
+    @Query("SELECT r FROM StockRollup r WHERE r.id.productId IN :productIds AND r.id.bucketStart >= :from")
+    List<StockRollup> findByProductIdsSince(@Param("productIds") Collection<Long> productIds, @Param("from") Instant from);
+
+    @Query("SELECT r FROM StockRollup r WHERE r.id.productId = :productId AND r.id.granularity = :granularity "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart")
+    List<StockRollup> findSeries(@Param("productId") Long productId, @Param("granularity") RollupGranularity granularity,
+                                 @Param("from") Instant from, @Param("to") Instant to);
+
+    // The bucket whose closing stock carries into the first bucket of a series
+    @Query("SELECT r FROM StockRollup r WHERE r.id.productId = :productId AND r.id.granularity = :granularity "
+            + "AND r.id.bucketStart < :before ORDER BY r.id.bucketStart DESC")
+    List<StockRollup> findLatestBefore(@Param("productId") Long productId, @Param("granularity") RollupGranularity granularity,
+                                       @Param("before") Instant before, Limit limit);
+
+    // The first bucket of a product's history, whose opening stock applies to any earlier window
+    @Query("SELECT r FROM StockRollup r WHERE r.id.productId = :productId AND r.id.granularity = :granularity "
+            + "ORDER BY r.id.bucketStart")
+    List<StockRollup> findEarliest(@Param("productId") Long productId, @Param("granularity") RollupGranularity granularity,
+                                   Limit limit);
+
+    @Query("SELECT COALESCE(SUM(r.unitsSold), 0) FROM StockRollup r WHERE r.id.productId = :productId "
+            + "AND r.id.granularity = :granularity AND r.id.bucketStart >= :from")
+    long sumUnitsSold(@Param("productId") Long productId, @Param("granularity") RollupGranularity granularity,
+                      @Param("from") Instant from);
+
+    @Query("SELECT new com.inventorymanagement.ims.stockhistory.ProductUnitsRow(r.id.productId, SUM(r.unitsSold)) "
+            + "FROM StockRollup r WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from "
+            + "GROUP BY r.id.productId HAVING SUM(r.unitsSold) > 0 ORDER BY SUM(r.unitsSold) DESC, r.id.productId")
+    List<ProductUnitsRow> findTopSellers(@Param("granularity") RollupGranularity granularity,
+                                         @Param("from") Instant from, Limit limit);
+}
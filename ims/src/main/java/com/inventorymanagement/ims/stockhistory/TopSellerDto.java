@@ -0,0 +1,8 @@
+package com.inventorymanagement.ims.stockhistory;
+
+public record TopSellerDto(
+        Long productId,
+        String productName,
+        long unitsSold
+) {
+}
@@ -1,6 +1,7 @@
 package com.inventorymanagement.ims.user;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,6 +10,7 @@ import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users") // Explicitly name the table "users"
 public class User {
     @Id
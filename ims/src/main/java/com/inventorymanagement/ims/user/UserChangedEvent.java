@@ -0,0 +1,7 @@
+package com.inventorymanagement.ims.user;
+
+public record UserChangedEvent(
+        Long userId,
+        String username
+) {
+}
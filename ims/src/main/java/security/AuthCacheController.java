@@ -0,0 +1,33 @@
+package com.inventorymanagement.ims.security;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/security/auth-cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuthCacheController {
+
+    private final CachingAuthenticationProvider cachingAuthenticationProvider;
+
+    public AuthCacheController(CachingAuthenticationProvider cachingAuthenticationProvider) {
+        this.cachingAuthenticationProvider = cachingAuthenticationProvider;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<AuthCacheStatsDto> getStats() {
+        return ResponseEntity.ok(cachingAuthenticationProvider.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        cachingAuthenticationProvider.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
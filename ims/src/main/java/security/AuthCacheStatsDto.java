@@ -0,0 +1,11 @@
+package com.inventorymanagement.ims.security;
+
+public record AuthCacheStatsDto(
+        long hits,
+        long misses,
+        long evictions,
+        int size,
+        int maxEntries,
+        long ttlSeconds
+) {
+}
@@ -0,0 +1,157 @@
+package com.inventorymanagement.ims.security;
+
+import com.inventorymanagement.ims.user.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// HTTP Basic sends the password with every request, and checking it costs a user query plus a
+// BCrypt verification. Recently verified credentials are remembered here as an HMAC under a key
+// that only lives in this process, so a repeat request is a map lookup and a constant time
+// compare. Entries expire after a TTL, the cache is bounded with LRU eviction, and any change to
+// a user clears it. Being the only AuthenticationProvider bean, it replaces the default provider.
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final DaoAuthenticationProvider delegate;
+    private final SecretKeySpec hmacKey;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, CachedCredential> entries;
+
+    // Bumped by every invalidation, so a lookup that raced with one does not repopulate the cache
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingAuthenticationProvider(UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder,
+                                         @Value("${ims.security.auth-cache.ttl-seconds:300}") long ttlSeconds,
+                                         @Value("${ims.security.auth-cache.max-entries:10000}") int maxEntries) {
+        this.delegate = new DaoAuthenticationProvider(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCredential> eldest) {
+                if (size() > CachingAuthenticationProvider.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        byte[] fingerprint = fingerprint(username, credentials.toString());
+        CachedCredential cached;
+        synchronized (entries) {
+            cached = entries.get(username);
+        }
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0
+                && MessageDigest.isEqual(cached.fingerprint(), fingerprint)) {
+            hits.increment();
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.principal(), null, cached.principal().getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        misses.increment();
+        long generationBefore = generation.get();
+        Authentication result = delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails principal) {
+            CachedCredential entry = new CachedCredential(fingerprint, principal, System.nanoTime() + ttlNanos);
+            synchronized (entries) {
+                if (generation.get() == generationBefore) {
+                    entries.put(username, entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    // Users change rarely, so any change clears everything, which also covers renamed users
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(username);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public AuthCacheStatsDto getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new AuthCacheStatsDto(hits.sum(), misses.sum(), evictions.sum(), size, maxEntries,
+                TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+    }
+
+    private byte[] fingerprint(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private record CachedCredential(byte[] fingerprint, UserDetails principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+-- Moves products, purchase orders, order items and discount tiers from IDENTITY ids to the
+-- pooled sequences of their entity mappings. Run once against an existing schema before
+-- deploying the version that uses them; new schemas get the sequences from Hibernate.
+--
+-- Each sequence increments by the allocationSize of its @SequenceGenerator (50). Hibernate takes
+-- a sequence value as the top of a block of 50 ids, so the sequences start 50 above the current
+-- highest id. The identity columns are kept but switched to BY DEFAULT, which accepts the ids
+-- Hibernate now supplies.
+DECLARE
+    PROCEDURE create_sequence(p_sequence VARCHAR2, p_table VARCHAR2) IS
+        v_exists NUMBER;
+        v_start  NUMBER;
+    BEGIN
+        SELECT COUNT(*) INTO v_exists FROM user_sequences WHERE sequence_name = UPPER(p_sequence);
+        IF v_exists = 0 THEN
+            EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) + 50 FROM ' || p_table INTO v_start;
+            EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence || ' START WITH ' || v_start
+                || ' INCREMENT BY 50 CACHE 20';
+        END IF;
+
+        SELECT COUNT(*) INTO v_exists FROM user_tab_identity_cols
+        WHERE table_name = UPPER(p_table) AND column_name = 'ID' AND generation_type = 'ALWAYS';
+        IF v_exists > 0 THEN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || p_table || ' MODIFY (id GENERATED BY DEFAULT AS IDENTITY)';
+        END IF;
+    END;
+BEGIN
+    create_sequence('product_seq', 'products');
+    create_sequence('purchase_order_seq', 'purchase_order');
+    create_sequence('order_item_seq', 'order_item');
+    create_sequence('discount_tier_seq', 'discount_tier');
+END;
+/
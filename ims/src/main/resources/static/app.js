@@ -4,6 +4,7 @@ document.addEventListener("DOMContentLoaded", async () => {
   const navLinks = document.querySelectorAll(".nav-link");
   const navIndicator = document.querySelector(".nav-indicator");
   let currentUser;
+  let lowStockEvents;
 
   // --- UTILITY & GENERIC FUNCTIONS ---
   const apiFetch = (url, options = {}) => {
@@ -94,6 +95,11 @@ document.addEventListener("DOMContentLoaded", async () => {
         { opacity: 1, y: 0, duration: 0.5, ease: "power2.out" }
       );
 
+      if (lowStockEvents) {
+        lowStockEvents.close();
+        lowStockEvents = null;
+      }
+
       // Initialize page-specific functionality after content is loaded
       if (pageId === "dashboard") initDashboardPage();
       else if (pageId === "products") initProductsPage();
@@ -133,11 +139,29 @@ document.addEventListener("DOMContentLoaded", async () => {
       totalValueSpan.textContent = (stats.totalInventoryValue || 0).toFixed(2);
       pendingOrdersSpan.textContent = stats.pendingOrders || 0;
 
-      const alertsResponse = await apiFetch(`${API_BASE_URL}/products/low-stock`);
-      const alerts = await alertsResponse.json();
-      lowStockAlertsUl.innerHTML = alerts.length
-        ? alerts.map((p) => `<li>${p.name} - Only ${p.quantity} left</li>`).join("")
-        : "<li>No low stock alerts</li>";
+      const renderAlerts = (alerts) => {
+        lowStockAlertsUl.innerHTML = alerts.length
+          ? alerts.map((p) => `<li>${p.name} - Only ${p.quantity} left</li>`).join("")
+          : "<li>No low stock alerts</li>";
+      };
+
+      // Alerts are pushed by the server: a snapshot first, then every threshold crossing
+      if (lowStockEvents) lowStockEvents.close();
+      let alerts = [];
+      lowStockEvents = new EventSource(`${API_BASE_URL}/products/low-stock/stream`, { withCredentials: true });
+      lowStockEvents.addEventListener("snapshot", (event) => {
+        alerts = JSON.parse(event.data);
+        renderAlerts(alerts);
+      });
+      lowStockEvents.addEventListener("low-stock", (event) => {
+        const alert = JSON.parse(event.data);
+        alerts = alerts.filter((p) => p.id !== alert.product.id);
+        if (alert.transition === "BELOW_THRESHOLD") {
+          alerts.push(alert.product);
+          alerts.sort((a, b) => a.quantity - b.quantity || a.id - b.id);
+        }
+        renderAlerts(alerts);
+      });
     } catch (error) {
       console.error("Error loading dashboard data:", error);
       // Set default values if API fails
@@ -154,28 +178,67 @@ document.addEventListener("DOMContentLoaded", async () => {
     const createBundleForm = document.getElementById("createBundleForm");
     const importForm = document.getElementById("importForm");
 
-    const fetchAndRenderProducts = async () => {
+    const loadMoreProductsBtn = document.getElementById("loadMoreProductsBtn");
+    let nextProductsCursor = null;
+
+    const renderProductRow = (p) =>
+      `<tr><td>${p.id}</td><td>${p.name}</td><td>$${p.price.toFixed(
+        2
+      )}</td><td>${p.quantity}</td><td>${
+        p.isBundle ? "Yes" : "No"
+      }</td></tr>`;
+
+    // Loads the first page, or appends the next one when called with append = true
+    const fetchAndRenderProducts = async (append = false) => {
       if (!productsTbody) return;
 
       try {
-        const response = await apiFetch(`${API_BASE_URL}/products`);
-        const products = await response.json();
-        productsTbody.innerHTML = products
-          .map(
-            (p) =>
-              `<tr><td>${p.id}</td><td>${p.name}</td><td>$${p.price.toFixed(
-                2
-              )}</td><td>${p.quantity}</td><td>${
-                p.isBundle ? "Yes" : "No"
-              }</td></tr>`
-          )
-          .join("");
+        const cursorParam =
+          append && nextProductsCursor ? `&cursor=${encodeURIComponent(nextProductsCursor)}` : "";
+        const response = await apiFetch(`${API_BASE_URL}/products?limit=100${cursorParam}`);
+        const page = await response.json();
+        const rowsHtml = page.items.map(renderProductRow).join("");
+        productsTbody.innerHTML = append ? productsTbody.innerHTML + rowsHtml : rowsHtml;
+        nextProductsCursor = page.nextCursor;
+        if (loadMoreProductsBtn) {
+          loadMoreProductsBtn.style.display = nextProductsCursor ? "block" : "none";
+        }
       } catch (error) {
         console.error("Error fetching products:", error);
         productsTbody.innerHTML = "<tr><td colspan='5'>Error loading products</td></tr>";
       }
     };
 
+    if (loadMoreProductsBtn) {
+      loadMoreProductsBtn.addEventListener("click", () => fetchAndRenderProducts(true));
+    }
+
+    // Typing searches the server side index, clearing the box goes back to the paged listing
+    const productSearch = document.getElementById("productSearch");
+    let searchTimer = null;
+    if (productSearch) {
+      productSearch.addEventListener("input", () => {
+        clearTimeout(searchTimer);
+        searchTimer = setTimeout(async () => {
+          const q = productSearch.value.trim();
+          if (!q) {
+            fetchAndRenderProducts();
+            return;
+          }
+          try {
+            const response = await apiFetch(
+              `${API_BASE_URL}/products/search?q=${encodeURIComponent(q)}&limit=100`
+            );
+            const result = await response.json();
+            productsTbody.innerHTML = result.hits.map(renderProductRow).join("");
+            if (loadMoreProductsBtn) loadMoreProductsBtn.style.display = "none";
+          } catch (error) {
+            console.error("Error searching products:", error);
+          }
+        }, 250);
+      });
+    }
+
     if (addProductForm) {
       addProductForm.addEventListener("submit", async function (e) {
         e.preventDefault();
@@ -185,6 +248,9 @@ document.addEventListener("DOMContentLoaded", async () => {
             description: document.getElementById("description").value,
             price: parseFloat(document.getElementById("price").value),
             quantity: parseInt(document.getElementById("quantity").value),
+            reorderThreshold: document.getElementById("reorderThreshold").value
+              ? parseInt(document.getElementById("reorderThreshold").value)
+              : null,
             size: document.getElementById("size").value,
             color: document.getElementById("color").value,
           };
@@ -207,13 +273,17 @@ document.addEventListener("DOMContentLoaded", async () => {
         e.preventDefault();
         try {
           const bundleId = parseInt(document.getElementById("bundleProductId").value);
-          const componentIds = document
+          // Entries are "id" for one unit or "id:units"
+          const components = document
             .getElementById("componentProductIds")
             .value.split(",")
-            .map((id) => parseInt(id.trim()));
+            .map((entry) => {
+              const [id, units] = entry.split(":");
+              return { productId: parseInt(id.trim()), quantity: units ? parseInt(units.trim()) : 1 };
+            });
           const data = {
             bundleProductId: bundleId,
-            componentProductIds: componentIds,
+            components: components,
           };
           await apiFetch(`${API_BASE_URL}/products/bundles`, {
             method: "POST",
@@ -246,8 +316,9 @@ document.addEventListener("DOMContentLoaded", async () => {
             return;
           }
           this.reset();
-          fetchAndRenderProducts();
-          showNotification("Products imported!", "success");
+          const job = await response.json();
+          showNotification("Import started", "info");
+          pollImportJob(job.id);
         } catch (error) {
           console.error("Error importing products:", error);
           showNotification("Import failed!", "error");
@@ -255,6 +326,34 @@ document.addEventListener("DOMContentLoaded", async () => {
       });
     }
 
+    // Imports run as background jobs, poll the job until it finishes and show its progress
+    const importStatus = document.getElementById("importStatus");
+    const pollImportJob = (jobId) => {
+      const timer = setInterval(async () => {
+        try {
+          const response = await apiFetch(`${API_BASE_URL}/products/import/jobs/${jobId}`);
+          const job = await response.json();
+          if (importStatus) {
+            const eta = job.etaSeconds != null ? `, about ${job.etaSeconds}s left` : "";
+            importStatus.textContent = `${job.status}: ${job.rowsProcessed} rows (${job.percentComplete.toFixed(
+              0
+            )}%, ${job.rowsPerSecond.toFixed(0)} rows/s${eta})`;
+          }
+          if (job.status === "RUNNING" || job.status === "QUEUED") return;
+          clearInterval(timer);
+          fetchAndRenderProducts();
+          if (job.status === "COMPLETED") {
+            showNotification("Products imported!", "success");
+          } else {
+            showNotification(`Import ${job.status.toLowerCase()}`, "error");
+          }
+        } catch (error) {
+          clearInterval(timer);
+          console.error("Error polling import job:", error);
+        }
+      }, 1000);
+    };
+
     await fetchAndRenderProducts();
   }
 
@@ -401,10 +500,10 @@ document.addEventListener("DOMContentLoaded", async () => {
       if (!purchaseOrdersTbody) return;
 
       try {
-        const response = await apiFetch(`${API_BASE_URL}/purchaseorders`);
-        const orders = await response.json();
+        const response = await apiFetch(`${API_BASE_URL}/purchaseorders?size=50`);
+        const page = await response.json();
         purchaseOrdersTbody.innerHTML = "";
-        orders.forEach((o) => {
+        page.items.forEach((o) => {
           const itemsHtml = o.items
             .map((item) => `<li>${item.quantity} x ${item.productName}</li>`)
             .join("");
@@ -0,0 +1,118 @@
+package com.inventorymanagement.ims.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primary and replicas are separate in-memory H2 databases with nothing replicated between them,
+// so the database a statement ran on shows where it was routed. The tests play the replication
+// side by writing the heartbeat rows on the replicas themselves. Scheduled jobs are off, so no
+// flusher or relay runs statements of its own while the tests watch where statements go.
+// The replicas are left without a schema on purpose: the startup loaders must read from the
+// primary, and one that reached a replica would fail the context with a missing table.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "ims.datasource.replica-urls=" + ReadReplicaRoutingTest.REPLICA_1 + "," + ReadReplicaRoutingTest.REPLICA_2,
+        "ims.datasource.replica.max-lag-ms=120000",
+        "ims.datasource.replica.check-interval-ms=60000",
+        "ims.scheduling.enabled=false"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void replicasCaughtUp() {
+        replicateHeartbeat(REPLICA_1, System.currentTimeMillis());
+        replicateHeartbeat(REPLICA_2, System.currentTimeMillis());
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() {
+        Set<String> databases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(database(true));
+        }
+
+        assertThat(databases).containsExactlyInAnyOrder("REPLICA1", "REPLICA2");
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertThat(database(false)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        signIn("writer");
+        database(false);
+        assertThat(database(true)).isEqualTo("PRIMARY");
+        assertThat(database(true)).isEqualTo("PRIMARY");
+
+        signIn("someone-else");
+        assertThat(database(true)).startsWith("REPLICA");
+    }
+
+    @Test
+    void laggingReplicaLeavesTheRotation() {
+        replicateHeartbeat(REPLICA_2, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10));
+        replicaLagMonitor.check();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(database(true)).isEqualTo("REPLICA1");
+        }
+
+        replicateHeartbeat(REPLICA_1, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10));
+        replicaLagMonitor.check();
+
+        assertThat(database(true)).isEqualTo("PRIMARY");
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    private static void replicateHeartbeat(String url, long beatAtMillis) {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id BIGINT PRIMARY KEY, beat_at_millis BIGINT NOT NULL)");
+        replica.update("MERGE INTO replica_heartbeat (id, beat_at_millis) KEY (id) VALUES (1, ?)", beatAtMillis);
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventorymanagement.ims.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockReservationEngineStressTest {
+
+    private static final int INITIAL_STOCK = 10_000;
+
+    @Test
+    void failedLineReleasesTheLinesAlreadyTaken() {
+        StockReservationEngine engine = new StockReservationEngine();
+        Map<Long, Integer> demand = new HashMap<>();
+        demand.put(1L, 5);
+        demand.put(2L, 50);
+
+        assertThatThrownBy(() -> engine.reserve(demand, id -> 10))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(engine.available(1L)).hasValue(10);
+        assertThat(engine.available(2L)).hasValue(10);
+    }
+
+    @Test
+    void concurrentMultiLineOrdersNeverOversell() throws Exception {
+        int products = 8;
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        StockReservationEngine engine = new StockReservationEngine();
+        AtomicLongArray reserved = new AtomicLongArray(products);
+
+        runConcurrently(threads, 20_000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Map<Long, Integer> demand = new HashMap<>();
+            int lines = 1 + random.nextInt(3);
+            for (int i = 0; i < lines; i++) {
+                demand.merge((long) random.nextInt(products), 1 + random.nextInt(5), Integer::sum);
+            }
+            try {
+                StockReservation reservation = engine.reserve(demand, id -> INITIAL_STOCK);
+                // Give some reservations back, as a rolled back order would
+                if (random.nextInt(10) == 0) {
+                    engine.release(reservation);
+                } else {
+                    reservation.quantities().forEach((id, quantity) -> reserved.addAndGet(id.intValue(), quantity));
+                }
+            } catch (InsufficientStockException e) {
+                // Expected once the hot products run out
+            }
+        });
+
+        for (int id = 0; id < products; id++) {
+            int left = engine.available((long) id).orElseThrow();
+            assertThat(left).isGreaterThanOrEqualTo(0);
+            assertThat(reserved.get(id) + left).isEqualTo(INITIAL_STOCK);
+        }
+    }
+
+    private static void runConcurrently(int threads, int iterations, Runnable operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        operation.run();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        }
+    }
+}
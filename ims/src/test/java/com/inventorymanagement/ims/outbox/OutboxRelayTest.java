@@ -0,0 +1,197 @@
+package com.inventorymanagement.ims.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.ims.purchaseorder.OrderStatus;
+import com.inventorymanagement.ims.purchaseorder.OrderStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The relay commits its own transactions, so the tests run outside the usual rollback-only test
+// transaction. Rows accumulate across tests; each test works above the highest sequence so far.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OutboxRelay.class, OutboxService.class, OutboxWriter.class})
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        // Needed by the startup runner in ImsApplication, SecurityConfig is not part of the slice
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+
+        final List<List<OutboxEventDto>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean rejecting;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(List<OutboxEventDto> events) throws IOException {
+            batches.add(List.copyOf(events));
+            if (rejecting) {
+                throw new IOException("Sink unavailable");
+            }
+        }
+    }
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long base;
+
+    @BeforeEach
+    void setUp() {
+        sink.rejecting = false;
+        outboxRelay.relay();
+        sink.batches.clear();
+        base = outboxEventRepository.findMaxSequence();
+    }
+
+    @Test
+    void sequencesFollowCommitOrderWithoutGaps() {
+        // The higher id commits first, as a long transaction holding a lower identity value would
+        insertWithId(2_000_002L);
+        outboxRelay.relay();
+        insertWithId(2_000_001L);
+        outboxRelay.relay();
+
+        assertThat(outboxEventRepository.findById(2_000_002L).orElseThrow().getSequenceNumber()).isEqualTo(base + 1);
+        assertThat(outboxEventRepository.findById(2_000_001L).orElseThrow().getSequenceNumber()).isEqualTo(base + 2);
+
+        // A consumer that had read up to the first record still gets the late one
+        assertThat(outboxService.getEvents(base + 1, 10).events())
+                .extracting(OutboxEventDto::aggregateId)
+                .containsExactly(2_000_001L);
+    }
+
+    @Test
+    void recordsWrittenInOneTransactionAreNumberedConsecutively() {
+        appendOrderEvents(3);
+        appendOrderEvents(2);
+
+        outboxRelay.relay();
+
+        assertThat(outboxService.getEvents(base, 10).events())
+                .extracting(OutboxEventDto::sequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(base + 1, base + 5).boxed().toList());
+        assertThat(sink.batches).hasSize(1);
+        assertThat(sink.batches.get(0)).hasSize(5);
+    }
+
+    @Test
+    void rejectedBatchIsRetriedWithTheSameSequences() {
+        appendOrderEvents(3);
+        sink.rejecting = true;
+
+        outboxRelay.relay();
+
+        assertThat(sink.batches).hasSize(1);
+        assertThat(outboxEventRepository.findBySequenceNumberIsNotNullAndPublishedAtIsNullOrderBySequenceNumberAsc(
+                Limit.of(10))).hasSize(3);
+
+        sink.rejecting = false;
+        outboxRelay.relay();
+
+        assertThat(sink.batches).hasSize(2);
+        assertThat(sink.batches.get(1)).extracting(OutboxEventDto::sequence)
+                .containsExactlyElementsOf(sink.batches.get(0).stream().map(OutboxEventDto::sequence).toList());
+        assertThat(outboxEventRepository.findBySequenceNumberIsNotNullAndPublishedAtIsNullOrderBySequenceNumberAsc(
+                Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    void feedResumesFromNextAfter() {
+        appendOrderEvents(5);
+        outboxRelay.relay();
+
+        OutboxFeedDto first = outboxService.getEvents(base, 2);
+        OutboxFeedDto second = outboxService.getEvents(first.nextAfter(), 2);
+        OutboxFeedDto third = outboxService.getEvents(second.nextAfter(), 2);
+        OutboxFeedDto caughtUp = outboxService.getEvents(third.nextAfter(), 2);
+
+        assertThat(first.events()).extracting(OutboxEventDto::sequence).containsExactly(base + 1, base + 2);
+        assertThat(second.events()).extracting(OutboxEventDto::sequence).containsExactly(base + 3, base + 4);
+        assertThat(third.events()).extracting(OutboxEventDto::sequence).containsExactly(base + 5);
+        // Nothing new: the same position comes back, so polling with it loses nothing
+        assertThat(caughtUp.events()).isEmpty();
+        assertThat(caughtUp.nextAfter()).isEqualTo(base + 5);
+    }
+
+    @Test
+    void feedRejectsInvalidArguments() {
+        assertThatThrownBy(() -> outboxService.getEvents(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> outboxService.getEvents(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void appendOrderEvents(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long orderId = 1; orderId <= count; orderId++) {
+                outboxWriter.onOrderStatusChanged(new OrderStatusChangedEvent(orderId, null, OrderStatus.PENDING));
+            }
+        });
+    }
+
+    private void insertWithId(long id) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, event_type, aggregate_type, aggregate_id, payload, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                id, OutboxEventType.ORDER_STATUS_CHANGED.name(), "purchase_order", id, "{}", Timestamp.from(Instant.now()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BundleGraphTest {
+
+    // Gift set 100 holds two mugs (1) and a coffee kit (200), the kit holds three coffee bags (2) and a mug
+    private static final long MUG = 1L;
+    private static final long COFFEE = 2L;
+    private static final long GIFT_SET = 100L;
+    private static final long COFFEE_KIT = 200L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private BundleGraph bundleGraph;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllBundleEdges()).thenReturn(List.of(
+                new BundleEdge(GIFT_SET, MUG, 2, 30),
+                new BundleEdge(GIFT_SET, COFFEE_KIT, 1, 0),
+                new BundleEdge(COFFEE_KIT, COFFEE, 3, 12),
+                new BundleEdge(COFFEE_KIT, MUG, 1, 30)));
+        // No counters are seeded, so the stored and event quantities are the available stock
+        bundleGraph = new BundleGraph(productRepository, new StockReservationEngine(),
+                mock(PlatformTransactionManager.class));
+        bundleGraph.load();
+    }
+
+    @Test
+    void nestedBundlesExpandIntoStockedProductsWithMultipliedUnits() {
+        assertThat(bundleGraph.expand(COFFEE_KIT)).isEqualTo(Map.of(COFFEE, 3, MUG, 1));
+        assertThat(bundleGraph.expand(GIFT_SET)).isEqualTo(Map.of(MUG, 3, COFFEE, 3));
+        assertThat(bundleGraph.expand(MUG)).isEmpty();
+
+        assertThat(bundleGraph.withStockedComponents(List.of(GIFT_SET, 7L)))
+                .containsExactlyInAnyOrder(GIFT_SET, 7L, MUG, COFFEE);
+    }
+
+    @Test
+    void sellableQuantityIsLimitedByTheScarcestComponent() {
+        // Twelve coffee bags make four kits and four gift sets, thirty mugs would allow ten gift sets
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(4);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(4);
+        assertThat(bundleGraph.availableQuantity(MUG)).isEmpty();
+    }
+
+    @Test
+    void componentStockChangeRecomputesTheBundlesAboveIt() {
+        bundleGraph.onProductChanged(new ProductChangedEvent(snapshot(COFFEE, 12), snapshot(COFFEE, 60)));
+
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(20);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(10);
+
+        bundleGraph.onProductChanged(new ProductChangedEvent(snapshot(MUG, 30), snapshot(MUG, 9)));
+
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(9);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(3);
+
+        // Kept current from the events alone, the compositions are read once
+        verify(productRepository, times(1)).findAllBundleEdges();
+    }
+
+    @Test
+    void changeToAProductOutsideEveryBundleLeavesTheGraphAlone() {
+        bundleGraph.onProductChanged(new ProductChangedEvent(snapshot(7L, 5), snapshot(7L, 0)));
+
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(4);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(4);
+    }
+
+    @Test
+    void deletedComponentLeavesNoStockForItsBundles() {
+        bundleGraph.onProductChanged(ProductChangedEvent.deleted(snapshot(COFFEE, 12)));
+
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(0);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(0);
+    }
+
+    @Test
+    void cycleIsDetectedDirectlyAndThroughNesting() {
+        assertThat(bundleGraph.wouldCreateCycle(COFFEE_KIT, Set.of(COFFEE_KIT))).isTrue();
+        assertThat(bundleGraph.wouldCreateCycle(COFFEE_KIT, Set.of(COFFEE, GIFT_SET))).isTrue();
+        assertThat(bundleGraph.wouldCreateCycle(GIFT_SET, Set.of(COFFEE_KIT, MUG))).isFalse();
+        assertThat(bundleGraph.wouldCreateCycle(300L, Set.of(GIFT_SET, COFFEE_KIT))).isFalse();
+    }
+
+    @Test
+    void compositionChangeUpdatesExpansionAndAncestors() {
+        Product tea = new Product();
+        tea.setId(3L);
+        tea.setQuantity(8);
+        when(productRepository.findAllById(any())).thenReturn(List.of(tea));
+
+        // The kit now holds two tea bags instead of coffee
+        bundleGraph.onCompositionChanged(new BundleCompositionChangedEvent(COFFEE_KIT, Map.of(3L, 2, MUG, 1)));
+
+        assertThat(bundleGraph.expand(GIFT_SET)).isEqualTo(Map.of(MUG, 3, 3L, 2));
+        assertThat(bundleGraph.availableQuantity(COFFEE_KIT)).hasValue(4);
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(4);
+        assertThat(bundleGraph.wouldCreateCycle(COFFEE_KIT, Set.of(COFFEE))).isFalse();
+
+        // Coffee is in no bundle any more, its changes no longer reach the graph
+        bundleGraph.onProductChanged(new ProductChangedEvent(snapshot(COFFEE, 12), snapshot(COFFEE, 0)));
+        assertThat(bundleGraph.availableQuantity(GIFT_SET)).hasValue(4);
+    }
+
+    private static ProductSnapshot snapshot(long id, int quantity) {
+        return new ProductSnapshot(id, "Product " + id, null, 1.0, quantity, 0, null, null, false);
+    }
+}
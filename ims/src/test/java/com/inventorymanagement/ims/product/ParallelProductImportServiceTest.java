@@ -0,0 +1,113 @@
+package com.inventorymanagement.ims.product;
+
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelProductImportServiceTest {
+
+    private static final String HEADER = "NAME,DESCRIPTION,PRICE,QUANTITY\n";
+
+    private final ProductImportChunkWriter chunkWriter = mock(ProductImportChunkWriter.class);
+    private final OptimisticRetryExecutor retryExecutor = mock(OptimisticRetryExecutor.class);
+    // Every row handed to a chunk writer, in the order each writer thread wrote them
+    private final List<WrittenRow> written = Collections.synchronizedList(new ArrayList<>());
+    private ParallelProductImportService importService;
+
+    private record WrittenRow(Product product, Thread writer) {
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(retryExecutor.execute(any(Supplier.class))).thenAnswer(invocation ->
+                invocation.<Supplier<ImportChunkResult>>getArgument(0).get());
+        when(chunkWriter.writeChunk(anyInt(), anyList(), anyInt())).thenAnswer(invocation -> {
+            List<Product> rows = invocation.getArgument(1);
+            rows.forEach(row -> written.add(new WrittenRow(row, Thread.currentThread())));
+            return new ImportChunkResult(invocation.getArgument(0), rows.size(), rows.size(), 0, invocation.getArgument(2));
+        });
+        importService = new ParallelProductImportService(chunkWriter, retryExecutor, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        importService.shutdown();
+    }
+
+    @Test
+    void quotedValueSpanningAShardBoundaryStaysInOneRecord() {
+        String csv = HEADER
+                + "Mug,\"Holds coffee\n"
+                + "and, on Fridays, tea\",5.0,10\n"
+                + "Plate,Flat,3.0,4\n";
+
+        // One record per shard, a cut after the first line would split the description
+        ProductImportResult result = importService.importInParallel(List.of(file("products.csv", csv)), 1, 10);
+
+        assertThat(result.totalRows()).isEqualTo(2);
+        assertThat(result.rejected()).isZero();
+        assertThat(written).extracting(row -> row.product().getName()).containsExactlyInAnyOrder("Mug", "Plate");
+        assertThat(rowsNamed("Mug")).singleElement()
+                .extracting(Product::getDescription).isEqualTo("Holds coffee\nand, on Fridays, tea");
+    }
+
+    @Test
+    void nameRepeatedAcrossShardsAndFilesIsWrittenInUploadOrderByOneWriter() {
+        String first = HEADER
+                + "Mug,First,5.0,1\n"
+                + "Plate,Flat,3.0,4\n"
+                + "Bowl,Deep,4.0,6\n"
+                + "Mug,Second,5.0,2\n";
+        String second = HEADER
+                + "Cup,Small,2.0,8\n"
+                + "Mug,Third,5.0,3\n";
+
+        ProductImportResult result = importService.importInParallel(
+                List.of(file("first.csv", first), file("second.csv", second)), 1, 1);
+
+        assertThat(result.totalRows()).isEqualTo(6);
+        // The last write of the name is the last occurrence in the upload
+        assertThat(rowsNamed("Mug")).extracting(Product::getQuantity).containsExactly(1, 2, 3);
+        assertThat(written.stream().filter(row -> row.product().getName().equals("Mug")).map(WrittenRow::writer).distinct())
+                .hasSize(1);
+    }
+
+    @Test
+    void invalidRowsAreCountedAsRejected() {
+        String csv = HEADER
+                + "Mug,Fine,5.0,1\n"
+                + ",No name,5.0,1\n"
+                + "Plate,Negative,3.0,-4\n";
+
+        ProductImportResult result = importService.importInParallel(List.of(file("products.csv", csv)), 2, 10);
+
+        assertThat(result.totalRows()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+    }
+
+    private List<Product> rowsNamed(String name) {
+        synchronized (written) {
+            return written.stream().map(WrittenRow::product).filter(product -> product.getName().equals(name)).toList();
+        }
+    }
+
+    private static MockMultipartFile file(String filename, String csv) {
+        return new MockMultipartFile("files", filename, "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,146 @@
+package com.inventorymanagement.ims.purchaseorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorymanagement.ims.concurrency.OptimisticRetryExecutor;
+import com.inventorymanagement.ims.inventory.StockReservationEngine;
+import com.inventorymanagement.ims.location.LocationStockLedger;
+import com.inventorymanagement.ims.product.BundleComponent;
+import com.inventorymanagement.ims.product.BundleGraph;
+import com.inventorymanagement.ims.product.Product;
+import com.inventorymanagement.ims.product.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards against N+1 regressions: the number of statements per call must not grow with the
+// number of orders, items or bundle components involved.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PurchaseOrderService.class, PurchaseOrderBulkWriter.class, StockReservationEngine.class,
+        OptimisticRetryExecutor.class, BundleGraph.class, LocationStockLedger.class})
+class PurchaseOrderQueryCountTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        // Needed by the startup runner in ImsApplication, SecurityConfig is not part of the slice
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        // Jackson auto-configuration is not part of the JPA slice either
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        // Nor is the Micrometer registry
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Product> products = new ArrayList<>();
+    private Product bundle;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < 6; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(10.0 + i);
+            product.setQuantity(1_000);
+            products.add(productRepository.save(product));
+        }
+
+        bundle = new Product();
+        bundle.setName("Bundle");
+        bundle.setPrice(25.0);
+        bundle.setBundle(true);
+        bundle.getComponents().add(new BundleComponent(bundle, products.get(0), 1));
+        bundle.getComponents().add(new BundleComponent(bundle, products.get(1), 2));
+        bundle = productRepository.save(bundle);
+
+        for (int i = 0; i < 5; i++) {
+            purchaseOrderService.createOrder(new CreatePurchaseOrderDto(List.of(
+                    new CreatePurchaseOrderItemDto(products.get(2).getId(), 1),
+                    new CreatePurchaseOrderItemDto(products.get(3).getId(), 1),
+                    new CreatePurchaseOrderItemDto(products.get(4).getId(), 1))));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void listingOrdersUsesAConstantNumberOfStatements() {
+        PurchaseOrderPageDto page = purchaseOrderService.getOrders(null, null, null, 0, 20);
+
+        assertThat(page.items()).hasSize(5);
+        assertThat(page.items()).allSatisfy(order -> assertThat(order.items()).hasSize(3));
+        // Page of ids plus one fetch join; the count query is skipped for a partial first page
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void creatingAnOrderLoadsAllProductsInOneQuery() {
+        purchaseOrderService.createOrder(new CreatePurchaseOrderDto(List.of(
+                new CreatePurchaseOrderItemDto(products.get(2).getId(), 1),
+                new CreatePurchaseOrderItemDto(products.get(3).getId(), 2),
+                new CreatePurchaseOrderItemDto(products.get(5).getId(), 3),
+                new CreatePurchaseOrderItemDto(bundle.getId(), 1))));
+        entityManager.flush();
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void updatingStatusFetchesItemsWithTheOrder() {
+        Long orderId = purchaseOrderService.getOrders(null, null, null, 0, 1).items().get(0).id();
+        entityManager.clear();
+        statistics.clear();
+
+        PurchaseOrderDto updated = purchaseOrderService.updateOrderStatus(orderId, OrderStatus.COMPLETED);
+
+        assertThat(updated.items()).hasSize(3);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+}
@@ -0,0 +1,84 @@
+package com.inventorymanagement.ims.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DocScoresTest {
+
+    @Test
+    void growsPastTheExpectedSize() {
+        DocScores scores = new DocScores(1);
+        for (int doc = 0; doc < 10_000; doc++) {
+            scores.accept(doc, 0, 1.0f);
+        }
+
+        assertThat(scores.size()).isEqualTo(10_000);
+        assertThat(scores.capacity()).isGreaterThanOrEqualTo(20_000);
+        assertThat(matches(scores, 1)).hasSize(10_000);
+    }
+
+    @Test
+    void laterTokensOnlyConfirmDocumentsOfTheFirst() {
+        DocScores scores = new DocScores(4);
+        scores.accept(1, 0, 1.0f);
+        scores.accept(2, 0, 1.0f);
+        scores.accept(2, 1, 0.5f);
+        // Matches only the second token, never added
+        scores.accept(3, 1, 0.5f);
+
+        assertThat(scores.size()).isEqualTo(2);
+        assertThat(matches(scores, 2)).containsOnlyKeys(2);
+        assertThat(matches(scores, 2).get(2)).isEqualTo(1.5f);
+    }
+
+    @Test
+    void tokenCountsOnceWithItsBestWeight() {
+        DocScores scores = new DocScores(4);
+        scores.accept(7, 0, 0.4f);
+        scores.accept(7, 0, 1.0f);
+        scores.accept(7, 0, 0.6f);
+        scores.accept(7, 1, 0.2f);
+        scores.accept(7, 1, 0.3f);
+
+        assertThat(matches(scores, 2)).containsOnlyKeys(7);
+        assertThat(matches(scores, 2).get(7)).isCloseTo(1.3f, within(1e-5f));
+    }
+
+    @Test
+    void documentMissingAMiddleTokenIsDropped() {
+        DocScores scores = new DocScores(4);
+        scores.accept(1, 0, 1.0f);
+        scores.accept(1, 2, 1.0f);
+
+        assertThat(matches(scores, 3)).isEmpty();
+    }
+
+    @Test
+    void scoresSurviveGrowth() {
+        DocScores scores = new DocScores(1);
+        scores.accept(42, 0, 2.0f);
+        for (int doc = 100; doc < 200; doc++) {
+            scores.accept(doc, 0, 1.0f);
+        }
+        scores.accept(42, 1, 3.0f);
+
+        assertThat(matches(scores, 2)).containsOnlyKeys(42);
+        assertThat(matches(scores, 2).get(42)).isEqualTo(5.0f);
+    }
+
+    private static Map<Integer, Float> matches(DocScores scores, int tokens) {
+        Map<Integer, Float> matches = new HashMap<>();
+        for (int slot = 0; slot < scores.capacity(); slot++) {
+            int doc = scores.docAt(slot, tokens);
+            if (doc >= 0) {
+                matches.put(doc, scores.scoreAt(slot));
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,94 @@
+package com.inventorymanagement.ims.search;
+
+import com.inventorymanagement.ims.product.ProductChangedEvent;
+import com.inventorymanagement.ims.product.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+// Driven through product change events only; the repository is just used by rebuild()
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex(null, null, null);
+
+    @Test
+    void renamedProductsAreFoundUnderTheirNewNameOnly() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "Red Lantern")));
+        index.onProductChanged(new ProductChangedEvent(product(1L, "Red Lantern"), product(1L, "Blue Lantern")));
+
+        assertThat(names(index.search("lantern", null, null, null, 10, false))).containsExactly("Blue Lantern");
+        assertThat(index.search("red", null, null, null, 10, false).totalHits()).isZero();
+        assertThat(index.deadDocuments()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedProductsAreNotFound() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "Garden Hose")));
+        index.onProductChanged(ProductChangedEvent.deleted(product(1L, "Garden Hose")));
+
+        assertThat(index.search("hose", null, null, null, 10, false).totalHits()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    // Dead ids sharing the query's rarest token used to fill the score table, whose probe then
+    // never found a free slot
+    @Test
+    void deadPostingsBeyondTheLiveCountDoNotStallSearch() {
+        int products = 10;
+        for (long id = 1; id <= products; id++) {
+            index.onProductChanged(ProductChangedEvent.created(product(id, "common item v0")));
+        }
+        for (int version = 1; version <= 500; version++) {
+            for (long id = 1; id <= products; id++) {
+                index.onProductChanged(new ProductChangedEvent(product(id, "common item v" + (version - 1)),
+                        product(id, "common item v" + version)));
+            }
+        }
+        assertThat(index.deadDocuments()).isEqualTo(5_000);
+
+        ProductSearchResultDto result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> index.search("common", null, null, null, 100, false));
+
+        assertThat(result.totalHits()).isEqualTo(products);
+        assertThat(names(result)).containsOnly("common item v500");
+    }
+
+    @Test
+    void compactionDropsDeadDocumentsAndKeepsLiveOnes() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "Anchor Chain")));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, "Brass Anchor v0")));
+        for (int version = 1; version <= 10_000; version++) {
+            index.onProductChanged(new ProductChangedEvent(product(2L, "Brass Anchor v" + (version - 1)),
+                    product(2L, "Brass Anchor v" + version)));
+        }
+
+        // Compacted on reaching the threshold, so the count restarted
+        assertThat(index.deadDocuments()).isZero();
+        assertThat(names(index.search("anchor", null, null, null, 10, false)))
+                .containsExactlyInAnyOrder("Anchor Chain", "Brass Anchor v10000");
+        assertThat(index.search("v9999", null, null, null, 10, false).totalHits()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void stockChangesKeepTheDocumentId() {
+        ProductSnapshot lantern = product(1L, "Red Lantern");
+        index.onProductChanged(ProductChangedEvent.created(lantern));
+        index.onProductChanged(new ProductChangedEvent(lantern, lantern.withQuantity(3)));
+
+        assertThat(index.deadDocuments()).isZero();
+        assertThat(index.search("lantern", null, null, null, 10, false).hits().get(0).quantity()).isEqualTo(3);
+    }
+
+    private static ProductSnapshot product(Long id, String name) {
+        return new ProductSnapshot(id, name, null, 10.0, 5, 0, null, null, false);
+    }
+
+    private static List<String> names(ProductSearchResultDto result) {
+        return result.hits().stream().map(ProductSearchHitDto::name).toList();
+    }
+}
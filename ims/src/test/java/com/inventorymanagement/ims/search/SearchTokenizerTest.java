@@ -0,0 +1,52 @@
+package com.inventorymanagement.ims.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigits() {
+        assertThat(SearchTokenizer.tokenize("T-Shirt (Blue) XL2")).containsExactly("t", "shirt", "blue", "xl2");
+        assertThat(SearchTokenizer.tokenize("  ")).isEmpty();
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void identicalTermsAreWithinOneEdit() {
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shirt")).isTrue();
+    }
+
+    @Test
+    void singleSubstitutionInsertionOrDeletion() {
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shurt")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shirts")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirts", "shirt")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "hirt")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shirx")).isTrue();
+    }
+
+    @Test
+    void adjacentSwapIsOneEdit() {
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shrit")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "hsirt")).isTrue();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shitr")).isTrue();
+    }
+
+    @Test
+    void twoEditsAreRejected() {
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shxrx")).isFalse();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "shi")).isFalse();
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "sxhirtx")).isFalse();
+        // A swap of characters that are not adjacent
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "thirs")).isFalse();
+        // An insertion plus a substitution
+        assertThat(SearchTokenizer.withinOneEdit("shirt", "xshirx")).isFalse();
+    }
+
+    @Test
+    void deletesHoldTheTermAndEveryOneCharacterDeletion() {
+        assertThat(SearchTokenizer.deletes("abc")).containsExactly("abc", "bc", "ac", "ab");
+    }
+}
@@ -0,0 +1,115 @@
+package com.inventorymanagement.ims.security;
+
+import com.inventorymanagement.ims.user.User;
+import com.inventorymanagement.ims.user.UserChangedEvent;
+import com.inventorymanagement.ims.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAuthenticationProviderTest {
+
+    // Lowest BCrypt cost, the tests count lookups rather than measure hashing
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setPassword(passwordEncoder.encode("secret"));
+        user.setRoles("ROLE_ADMIN");
+        when(userRepository.findByUsername("admin")).thenAnswer(invocation -> Optional.of(user));
+    }
+
+    @Test
+    void repeatedLoginIsServedFromTheCache() {
+        CachingAuthenticationProvider provider = provider(300);
+
+        Authentication first = provider.authenticate(login("secret"));
+        Authentication second = provider.authenticate(login("secret"));
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getCredentials()).isNull();
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        verify(userRepository, times(1)).findByUsername("admin");
+        assertThat(provider.getStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void wrongPasswordIsRejectedForACachedUser() {
+        CachingAuthenticationProvider provider = provider(300);
+        provider.authenticate(login("secret"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("guess")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        // The miss went to the database and BCrypt, and did not replace the good entry
+        verify(userRepository, times(2)).findByUsername("admin");
+        assertThat(provider.authenticate(login("secret")).isAuthenticated()).isTrue();
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void expiredEntriesAreVerifiedAgain() {
+        CachingAuthenticationProvider provider = provider(0);
+
+        provider.authenticate(login("secret"));
+        provider.authenticate(login("secret"));
+
+        verify(userRepository, times(2)).findByUsername("admin");
+        assertThat(provider.getStats().hits()).isZero();
+    }
+
+    @Test
+    void userChangeClearsTheCache() {
+        CachingAuthenticationProvider provider = provider(300);
+        provider.authenticate(login("secret"));
+
+        user.setPassword(passwordEncoder.encode("rotated"));
+        provider.onUserChanged(new UserChangedEvent(1L, "admin"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("secret")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(provider.authenticate(login("rotated")).isAuthenticated()).isTrue();
+        assertThat(provider.getStats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupRacingWithAChangeDoesNotRepopulateTheCache() {
+        CachingAuthenticationProvider provider = provider(300);
+        // The user changes while the lookup for the first login is in flight
+        when(userRepository.findByUsername("admin")).thenAnswer(invocation -> {
+            provider.onUserChanged(new UserChangedEvent(1L, "admin"));
+            return Optional.of(user);
+        });
+
+        provider.authenticate(login("secret"));
+
+        assertThat(provider.getStats().size()).isZero();
+    }
+
+    private CachingAuthenticationProvider provider(long ttlSeconds) {
+        return new CachingAuthenticationProvider(new UserDetailsServiceImpl(userRepository), passwordEncoder, ttlSeconds, 100);
+    }
+
+    private static Authentication login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("admin", password);
+    }
+}